@@ -0,0 +1,117 @@
+package songservice.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import songservice.SongServiceApplication;
+import songservice.entity.Song;
+import songservice.entity.SongV2;
+import songservice.repository.SongJdbcRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic songs for the benchmarks, and a service context running against an in-memory H2
+ * database filled with them.
+ */
+final class CatalogFixture {
+
+    private static final String[] WORDS = {"love", "night", "heart", "fire", "dream", "summer", "rain", "dance",
+            "light", "city", "blue", "gold", "wild", "home", "river", "star", "time", "ghost", "paper", "sky"};
+
+    private CatalogFixture() {
+    }
+
+    static String isrc(int i) {
+        return String.format("BNCH%08d", i);
+    }
+
+    static Song song(int i) {
+        Random random = new Random(i);
+        Song song = new Song();
+        song.setIsrc(isrc(i));
+        song.setTrackName(words(random, 1 + random.nextInt(3)));
+        song.setTrackUri("spotify:track:" + Integer.toHexString(i));
+        song.setArtistNames("Artist " + random.nextInt(Math.max(1, i / 10 + 1)));
+        song.setArtistUris("spotify:artist:" + random.nextInt(100_000));
+        song.setAlbumName(words(random, 2));
+        song.setAlbumUri("spotify:album:" + random.nextInt(100_000));
+        song.setAlbumReleaseDate((1960 + random.nextInt(66)) + "-01-01");
+        song.setAlbumImageUrl("https://i.scdn.co/image/" + Long.toHexString(random.nextLong()));
+        song.setTrackDurationMs(120_000 + random.nextInt(240_000));
+        song.setExplicit(Boolean.toString(random.nextInt(5) == 0));
+        song.setPopularity((int) (100 * Math.pow(random.nextDouble(), 3)));
+        song.setArtistGenres("pop,dance pop");
+        song.setDanceability(random.nextDouble());
+        song.setEnergy(random.nextDouble());
+        song.setKey(random.nextInt(12));
+        song.setLoudness(-30 * random.nextDouble());
+        song.setMode(random.nextInt(2));
+        song.setValence(random.nextDouble());
+        song.setTempo(60 + 140 * random.nextDouble());
+        song.setTimeSignature(4);
+        song.setLabel("Label " + random.nextInt(500));
+        return song;
+    }
+
+    static SongV2 songV2(Song song) {
+        SongV2 v2 = new SongV2();
+        v2.setIsrc(song.getIsrc());
+        v2.setTrack(song.getTrackName());
+        v2.setArtist(song.getArtistNames());
+        v2.setAlbumName(song.getAlbumName());
+        v2.setSpotifyStreams("1,234,567,890");
+        v2.setSpotifyPopularity(song.getPopularity());
+        return v2;
+    }
+
+    /**
+     * Starts the service without a web server against a fresh H2 database holding {@code size} songs.
+     */
+    static ConfigurableApplicationContext start(int size, Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>(Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:bench" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=KEY,VALUE",
+                "spring.datasource.driver-class-name", "org.h2.Driver",
+                "spring.datasource.username", "sa",
+                "spring.datasource.password", "",
+                "spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto", "create",
+                "spring.jpa.show-sql", "false",
+                "logging.level.root", "WARN"));
+        defaults.putAll(properties);
+        // Passed as command line arguments so they take precedence over the bundled application.yaml
+        String[] arguments = defaults.entrySet().stream().map(entry -> "--" + entry.getKey() + "=" + entry.getValue()).toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SongServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments);
+        SongJdbcRepository jdbc = context.getBean(SongJdbcRepository.class);
+        TransactionTemplate transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        for (int from = 0; from < size; from += 5000) {
+            int to = Math.min(size, from + 5000);
+            List<Song> songs = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                songs.add(song(i));
+            }
+            transactions.executeWithoutResult(status -> jdbc.insertAll(SongJdbcRepository.SONGS, songs));
+        }
+        return context;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            text.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,241 @@
+package songservice.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import songservice.synthetic.SyntheticCatalog;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load generator for a service started with the {@code synthetic} profile. Requests
+ * are issued on a fixed schedule at the target rate whether or not earlier ones have returned, and
+ * each latency is measured from its scheduled start, so a stalled server shows up in the tail
+ * instead of silently lowering the offered load.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar songservice.benchmarks.LoadTest --rps=500 --duration=60 \
+ *     --catalog-size=100000 --mix=songs:30,filter:40,isrc:30
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8085");
+        int rps = Integer.parseInt(options.getOrDefault("rps", "200"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int catalogSize = Integer.parseInt(options.getOrDefault("catalog-size", "100000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Map<String, Integer> mix = parseMix(options.getOrDefault("mix", "songs:30,filter:40,isrc:30"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        mix.keySet().forEach(type -> recorders.put(type, new Recorder()));
+        String[] schedule = schedule(mix);
+        SplittableRandom random = new SplittableRandom(seed);
+
+        System.out.printf("Offering %d req/s to %s for %d s after %d s of warm-up%n", rps, baseUrl, durationSeconds, warmupSeconds);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduled = start + i * intervalNanos;
+                if (scheduled >= end) {
+                    break;
+                }
+                long delay = scheduled - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                String type = schedule[(int) (i % schedule.length)];
+                URI uri = URI.create(baseUrl + path(type, random, catalogSize));
+                Recorder recorder = scheduled >= measureFrom ? recorders.get(type) : null;
+                requests.submit(() -> send(client, uri, scheduled, recorder));
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("url", baseUrl);
+        report.put("targetRps", rps);
+        report.put("durationSeconds", durationSeconds);
+        report.put("catalogSize", catalogSize);
+        report.put("mix", mix);
+        Recorder total = new Recorder();
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        recorders.forEach((type, recorder) -> {
+            endpoints.put(type, recorder.summary(durationSeconds));
+            total.merge(recorder);
+        });
+        report.put("endpoints", endpoints);
+        report.put("total", total.summary(durationSeconds));
+        print(endpoints, total.summary(durationSeconds));
+
+        Path results = Files.createDirectories(Path.of("results"));
+        Path file = Path.of(options.getOrDefault("out",
+                results.resolve("load-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json").toString()));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        System.out.println("Results written to " + file);
+    }
+
+    private static void send(HttpClient client, URI uri, long scheduled, Recorder recorder) {
+        int status;
+        try {
+            status = client.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            status = -1;
+        }
+        if (recorder != null) {
+            recorder.record(System.nanoTime() - scheduled, status);
+        }
+    }
+
+    /**
+     * Page numbers and ISRCs follow the generator's popularity skew, so caches see a realistic
+     * hot set; filter terms come from the same vocabulary as the generated titles.
+     */
+    private static String path(String type, SplittableRandom random, int catalogSize) {
+        return switch (type) {
+            case "songs" -> "/songs?page=" + (1 + SyntheticCatalog.zipf(random, 100)) + "&size=12";
+            case "filter" -> "/song?songname=" + SyntheticCatalog.WORDS[SyntheticCatalog.zipf(random, SyntheticCatalog.WORDS.length)]
+                    + "&sortby=" + (random.nextBoolean() ? "popularity" : "trackName") + "&page=1&size=12";
+            case "isrc" -> "/song/" + SyntheticCatalog.isrc(SyntheticCatalog.zipf(random, catalogSize));
+            default -> throw new IllegalArgumentException("Unknown request type: " + type);
+        };
+    }
+
+    private static String[] schedule(Map<String, Integer> mix) {
+        List<String> slots = new ArrayList<>();
+        mix.forEach((type, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(type);
+            }
+        });
+        // Interleave deterministically so every second of traffic carries the same mix
+        String[] schedule = slots.toArray(String[]::new);
+        SplittableRandom shuffle = new SplittableRandom(7);
+        for (int i = schedule.length - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            String swap = schedule[i];
+            schedule[i] = schedule[j];
+            schedule[j] = swap;
+        }
+        return schedule;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.split(":");
+            weights.put(entry[0].trim(), Integer.parseInt(entry[1].trim()));
+        }
+        return weights;
+    }
+
+    private static void print(Map<String, Object> endpoints, Map<String, Object> total) {
+        System.out.printf("%-8s %9s %8s %9s %9s %9s %9s%n", "type", "requests", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        endpoints.forEach((type, summary) -> printRow(type, summary));
+        printRow("total", total);
+        System.out.printf("throughput: %s req/s%n", total.get("throughput"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printRow(String type, Object row) {
+        Map<String, Object> summary = (Map<String, Object>) row;
+        System.out.printf("%-8s %9s %8s %9s %9s %9s %9s%n", type, summary.get("requests"), summary.get("errors"),
+                summary.get("p50Ms"), summary.get("p99Ms"), summary.get("p999Ms"), summary.get("maxMs"));
+    }
+
+    /**
+     * Latencies of one request type; 2xx responses count as successes, anything else (including
+     * timeouts and refused connections) as errors.
+     */
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (status < 200 || status >= 300) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], 200);
+            }
+            errors.addAndGet(other.errors.get());
+        }
+
+        synchronized Map<String, Object> summary(int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", count);
+            summary.put("errors", errors.get());
+            summary.put("throughput", Math.round(10.0 * count / seconds) / 10.0);
+            summary.put("p50Ms", percentile(sorted, 0.50));
+            summary.put("p99Ms", percentile(sorted, 0.99));
+            summary.put("p999Ms", percentile(sorted, 0.999));
+            summary.put("maxMs", sorted.length == 0 ? null : millis(sorted[sorted.length - 1]));
+            return summary;
+        }
+
+        private static Double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return null;
+            }
+            return millis(sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)]);
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+}
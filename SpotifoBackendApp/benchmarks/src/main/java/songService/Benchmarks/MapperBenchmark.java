@@ -0,0 +1,45 @@
+package songservice.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import songservice.dto.SongDTO;
+import songservice.dto.SongDisplay;
+import songservice.dto.SongMapper;
+import songservice.entity.Song;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Song song;
+
+    @Setup
+    public void setUp() {
+        song = CatalogFixture.song(42);
+        song.setSongV2(CatalogFixture.songV2(song));
+    }
+
+    @Benchmark
+    public SongDTO toDTO() {
+        return SongMapper.INSTANCE.toDTO(song);
+    }
+
+    @Benchmark
+    public SongDisplay toDisplay() {
+        return SongMapper.INSTANCE.toDisplay(song);
+    }
+}
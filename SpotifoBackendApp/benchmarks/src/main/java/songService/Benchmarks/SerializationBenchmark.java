@@ -0,0 +1,66 @@
+package songservice.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import songservice.dto.SongDTO;
+import songservice.dto.SongDisplay;
+import songservice.dto.SongMapper;
+import songservice.entity.Song;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies as written by the default Spring MVC object mapper: a 12-song page as returned by
+ * {@code /songs} and {@code /song}, and a full {@code /song/{isrc}} document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Page<SongDisplay> page;
+    private SongDTO song;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<SongDisplay> content = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            content.add(SongMapper.INSTANCE.toDisplay(CatalogFixture.song(i)));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, 12), 10_000);
+        Song entity = CatalogFixture.song(42);
+        entity.setSongV2(CatalogFixture.songV2(entity));
+        song = SongMapper.INSTANCE.toDTO(entity);
+    }
+
+    @Benchmark
+    public byte[] songDisplayPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] songDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(song);
+    }
+}
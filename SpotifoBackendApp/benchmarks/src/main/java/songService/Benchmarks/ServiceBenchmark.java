@@ -0,0 +1,76 @@
+package songservice.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import songservice.dto.SongDisplay;
+import songservice.entity.Song;
+import songservice.repository.SongRepository;
+import songservice.service.SongService;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The database-backed read paths against an embedded H2 catalog, with the result caches turned off
+ * so every call runs its queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private SongService songService;
+    private SongRepository songRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = CatalogFixture.start(catalogSize, Map.of(
+                "spotifo.cache.song.enabled", "false",
+                "spotifo.cache.pages.enabled", "false"));
+        songService = context.getBean(SongService.class);
+        songRepository = context.getBean(SongRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<SongDisplay> getSongsByPopularity() {
+        int page = 1 + ThreadLocalRandom.current().nextInt(50);
+        return songService.getSongs(page, 12, "popularity", "DESC", "", "", "", "", 0, null, null);
+    }
+
+    @Benchmark
+    public Page<SongDisplay> getSongsFiltered() {
+        return songService.getSongs(1, 12, "trackName", "ASC", "love", "", "", "", 20, null, null);
+    }
+
+    @Benchmark
+    public Optional<Song> findByIsrc() {
+        return songRepository.findByisrc(CatalogFixture.isrc(ThreadLocalRandom.current().nextInt(catalogSize)));
+    }
+}
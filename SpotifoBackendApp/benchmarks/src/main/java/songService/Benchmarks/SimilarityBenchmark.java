@@ -0,0 +1,62 @@
+package songservice.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import songservice.similarity.SongSimilarityIndex;
+import songservice.synthetic.SyntheticCatalog;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-k over the audio features of a synthetic catalog, the work behind
+ * {@code GET /song/{isrc}/similar}. The catalog follows the synthetic profile's feature
+ * distributions; queries cycle through a fixed random sample of its songs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class SimilarityBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"10"})
+    private int k;
+
+    private SongSimilarityIndex index;
+    private int[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(42);
+        index = new SongSimilarityIndex();
+        for (int i = 0; i < size; i++) {
+            index.add(i, catalog.song(i));
+        }
+        index.loaded();
+        SplittableRandom random = new SplittableRandom(7);
+        queries = random.ints(QUERIES, 0, size).toArray();
+    }
+
+    @Benchmark
+    public List<SongSimilarityIndex.Neighbour> nearest() {
+        return index.nearest(queries[next++ & (QUERIES - 1)], k);
+    }
+}
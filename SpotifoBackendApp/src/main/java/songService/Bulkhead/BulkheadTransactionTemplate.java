@@ -0,0 +1,31 @@
+package songservice.bulkhead;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * A {@link TransactionTemplate} that takes a {@link DatabaseBulkhead} permit before beginning the
+ * transaction, since beginning it already takes a pooled connection; the repository calls inside
+ * then pass straight through. A read-only template takes a read permit. Without a bulkhead it is a
+ * plain template.
+ */
+public class BulkheadTransactionTemplate extends TransactionTemplate {
+
+    private final DatabaseBulkhead bulkhead;
+
+    public BulkheadTransactionTemplate(PlatformTransactionManager transactionManager, ObjectProvider<DatabaseBulkhead> bulkhead) {
+        super(transactionManager);
+        this.bulkhead = bulkhead.getIfAvailable();
+    }
+
+    @Override
+    public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+        if (bulkhead == null) {
+            return super.execute(action);
+        }
+        return bulkhead.call("TransactionTemplate.execute", isReadOnly(), () -> super.execute(action));
+    }
+}
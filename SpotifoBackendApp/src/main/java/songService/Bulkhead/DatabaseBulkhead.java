@@ -0,0 +1,237 @@
+package songservice.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+import songservice.datasource.ReadYourWrites;
+import songservice.exception.ServiceUnavailableException;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many threads can be inside the data layer at once, so a burst of virtual threads queues
+ * here, with a bounded wait, instead of on the Hikari pool. A {@code @Transactional} service method
+ * holds its connection from the start of the transaction, so permits are taken there (ahead of the
+ * transaction interceptor) as well as around repository calls; nested calls on a thread that already
+ * holds a permit pass straight through. Programmatic transactions take theirs the same way through
+ * {@link BulkheadTransactionTemplate}. A method declared to run without a transaction ({@code SUPPORTS},
+ * {@code NOT_SUPPORTED}, {@code NEVER}) takes none itself, only its repository calls do.
+ * <p>
+ * Without read replicas every connection comes from the primary pool and all work shares its permits.
+ * With {@code spotifo.datasource.routing}, read-only transactions take permits sized to the replica
+ * pools together instead, so reads scale with the replicas while writes, work outside a transaction
+ * and reads kept on the primary by {@link ReadYourWrites} still queue for the primary's.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "spotifo.bulkhead", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseBulkhead {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseBulkhead.class);
+    private static final Set<Integer> NON_TRANSACTIONAL = Set.of(Propagation.SUPPORTS.value(), Propagation.NOT_SUPPORTED.value(),
+            Propagation.NEVER.value());
+    private final TransactionAttributeSource transactionAttributes = new AnnotationTransactionAttributeSource();
+    private final Map<Site, Access> access = new ConcurrentHashMap<>();
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private final Permits primary;
+    private final Permits replicas;
+    private final ReadYourWrites readYourWrites;
+    private final long maxWaitNanos;
+
+    @Autowired
+    public DatabaseBulkhead(MeterRegistry registry, Environment environment, ObjectProvider<ReadYourWrites> readYourWrites,
+                            @Value("${spotifo.bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+                            @Value("${spotifo.bulkhead.max-concurrent-reads:0}") int maxConcurrentReads,
+                            @Value("${spotifo.bulkhead.max-wait:2s}") Duration maxWait) {
+        this(registry, maxConcurrent, maxConcurrentReads(readYourWrites, maxConcurrentReads, environment),
+                readYourWrites.getIfAvailable(), maxWait);
+    }
+
+    public DatabaseBulkhead(MeterRegistry registry, int maxConcurrent, Duration maxWait) {
+        this(registry, maxConcurrent, 0, null, maxWait);
+    }
+
+    /**
+     * @param maxConcurrentReads permits for read-only transactions routed to the replicas, or 0 when
+     *                           there are none and reads share the primary's {@code maxConcurrent}
+     */
+    public DatabaseBulkhead(MeterRegistry registry, int maxConcurrent, int maxConcurrentReads, ReadYourWrites readYourWrites,
+                            Duration maxWait) {
+        this.primary = new Permits("primary", maxConcurrent, registry);
+        this.replicas = maxConcurrentReads > 0 ? new Permits("replicas", maxConcurrentReads, registry) : primary;
+        this.readYourWrites = readYourWrites;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Around("within(songservice.repository..*) || target(org.springframework.data.repository.Repository) || " +
+            "(within(songservice..*) && (@within(org.springframework.transaction.annotation.Transactional) || " +
+            "@annotation(org.springframework.transaction.annotation.Transactional)))")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        Access required = Access.WRITE;
+        if (joinPoint.getSignature() instanceof MethodSignature signature && joinPoint.getTarget() != null) {
+            required = access.computeIfAbsent(new Site(signature.getMethod(), AopProxyUtils.ultimateTargetClass(joinPoint.getTarget())), this::access);
+        }
+        if (required == Access.NONE) {
+            return joinPoint.proceed();
+        }
+        return call(joinPoint.getSignature().toShortString(), required == Access.READ, joinPoint::proceed);
+    }
+
+    /**
+     * Runs {@code body} holding a permit, waiting up to max-wait for one unless this thread already
+     * holds one.
+     *
+     * @param readOnly whether {@code body} runs in a read-only transaction, which the router may send
+     *                 to a replica
+     * @throws ServiceUnavailableException if no permit came free in time
+     */
+    public <T, E extends Throwable> T call(String caller, boolean readOnly, Body<T, E> body) throws E {
+        int[] held = depth.get();
+        if (held[0] > 0) {
+            held[0]++;
+            try {
+                return body.run();
+            } finally {
+                held[0]--;
+            }
+        }
+        Permits permits = readOnly && (readYourWrites == null || !readYourWrites.active()) ? replicas : primary;
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for a database permit");
+        }
+        permits.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            permits.rejections.increment();
+            logger.warn("No {} database permit within {} ms for {}", permits.pool, maxWaitNanos / 1_000_000, caller);
+            throw new ServiceUnavailableException("The database is busy, please retry shortly");
+        }
+        held[0] = 1;
+        try {
+            return body.run();
+        } finally {
+            held[0] = 0;
+            permits.semaphore.release();
+        }
+    }
+
+    /**
+     * What a join point needs, from the transaction attribute Spring will apply to it. A Spring Data
+     * query method declared on the repository interface has none of its own and runs with the class-level
+     * attribute of the repository implementation behind the proxy, read-only for {@code SimpleJpaRepository}.
+     */
+    private Access access(Site site) {
+        TransactionAttribute attribute = transactionAttributes.getTransactionAttribute(site.method(), site.target());
+        if (attribute != null) {
+            return access(attribute.getPropagationBehavior(), attribute.isReadOnly());
+        }
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(site.target(), Transactional.class);
+        return transactional == null ? Access.WRITE : access(transactional.propagation().value(), transactional.readOnly());
+    }
+
+    private static Access access(int propagation, boolean readOnly) {
+        if (NON_TRANSACTIONAL.contains(propagation)) {
+            return Access.NONE;
+        }
+        return readOnly ? Access.READ : Access.WRITE;
+    }
+
+    /**
+     * Reads share the primary's permits unless {@link ReadYourWrites} is there, i.e. reads are routed;
+     * then they default to as many as the replica pools hold together.
+     */
+    private static int maxConcurrentReads(ObjectProvider<ReadYourWrites> routing, int configured, Environment environment) {
+        if (routing.getIfAvailable() == null) {
+            return 0;
+        }
+        if (configured > 0) {
+            return configured;
+        }
+        Binder binder = Binder.get(environment);
+        int replicas = binder.bind("spotifo.datasource.replicas", Bindable.listOf(String.class)).orElse(List.of()).size();
+        return replicas * binder.bind("spring.datasource.hikari.maximum-pool-size", Integer.class).orElse(10);
+    }
+
+    /**
+     * Work done while holding a permit.
+     */
+    @FunctionalInterface
+    public interface Body<T, E extends Throwable> {
+        T run() throws E;
+    }
+
+    private enum Access {
+        NONE, READ, WRITE
+    }
+
+    private record Site(Method method, Class<?> target) {
+    }
+
+    /**
+     * The permits for one pool, or for all pools when reads and writes share one.
+     */
+    private static final class Permits {
+
+        private final String pool;
+        private final Semaphore semaphore;
+        private final Timer waitTimer;
+        private final Counter rejections;
+
+        private Permits(String pool, int permits, MeterRegistry registry) {
+            this.pool = pool;
+            this.semaphore = new Semaphore(permits, true);
+            this.waitTimer = Timer.builder("spotifo.db.bulkhead.wait")
+                    .description("Time spent waiting for a database permit")
+                    .tag("pool", pool)
+                    .register(registry);
+            this.rejections = Counter.builder("spotifo.db.bulkhead.rejected")
+                    .description("Calls turned away after waiting max-wait for a database permit")
+                    .tag("pool", pool)
+                    .register(registry);
+            Gauge.builder("spotifo.db.bulkhead.available", semaphore, Semaphore::availablePermits)
+                    .description("Database permits currently free")
+                    .tag("pool", pool)
+                    .register(registry);
+            Gauge.builder("spotifo.db.bulkhead.queued", semaphore, Semaphore::getQueueLength)
+                    .description("Threads waiting for a database permit")
+                    .tag("pool", pool)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package songservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import songservice.catalog.SongsCreatedEvent;
+import songservice.catalog.SongsUpdatedEvent;
+import songservice.dto.SongDTO;
+import songservice.dto.SongV2DTO;
+import songservice.entity.Song;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of fully mapped {@link SongDTO}s keyed by ISRC. Caffeine's W-TinyLFU policy
+ * keeps the popular tracks, bounded by an estimate of their heap footprint. Unknown ISRCs are cached
+ * as empty entries with a shorter TTL, and both kinds are dropped when the song is created or updated.
+ */
+@Component
+public class SongDetailCache {
+
+    private static final int NEGATIVE_WEIGHT = 64;
+
+    private final boolean enabled;
+    private final Cache<String, Optional<SongDTO>> cache;
+
+    @Autowired
+    public SongDetailCache(MeterRegistry meterRegistry,
+                           @Value("${spotifo.cache.song.enabled:true}") boolean enabled,
+                           @Value("${spotifo.cache.song.max-weight-mb:64}") long maxWeightMb,
+                           @Value("${spotifo.cache.song.ttl:10m}") Duration ttl,
+                           @Value("${spotifo.cache.song.negative-ttl:30s}") Duration negativeTtl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightMb * 1024 * 1024)
+                .weigher((String isrc, Optional<SongDTO> song) -> song.map(SongDetailCache::estimateBytes).orElse(NEGATIVE_WEIGHT))
+                .expireAfter(Expiry.creating((String isrc, Optional<SongDTO> song) -> song.isPresent() ? ttl : negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "songDetails");
+    }
+
+    /**
+     * @return the cached song, loading it on a miss; {@code null} when the ISRC doesn't exist
+     */
+    public SongDTO get(String isrc, Function<String, SongDTO> loader) {
+        if (!enabled) {
+            return loader.apply(isrc);
+        }
+        return cache.get(isrc, key -> Optional.ofNullable(loader.apply(key))).orElse(null);
+    }
+
+    /**
+     * Cached songs for the given ISRCs, loading every miss with a single {@code loader} call. ISRCs
+     * that don't exist are left out of the result and remembered like unknown single lookups.
+     */
+    public Map<String, SongDTO> getAll(Collection<String> isrcs, Function<Set<? extends String>, Map<String, SongDTO>> loader) {
+        Map<String, SongDTO> songs = new HashMap<>();
+        if (!enabled) {
+            songs.putAll(loader.apply(Set.copyOf(isrcs)));
+            return songs;
+        }
+        cache.getAll(isrcs, missing -> {
+            Map<String, SongDTO> loaded = loader.apply(missing);
+            Map<String, Optional<SongDTO>> entries = new HashMap<>();
+            missing.forEach(isrc -> entries.put(isrc, Optional.ofNullable(loaded.get(isrc))));
+            return entries;
+        }).forEach((isrc, song) -> song.ifPresent(found -> songs.put(isrc, found)));
+        return songs;
+    }
+
+    /**
+     * @return the cached song without loading it; {@code null} on a miss or for an unknown ISRC
+     */
+    public SongDTO getIfPresent(String isrc) {
+        if (!enabled) {
+            return null;
+        }
+        Optional<SongDTO> song = cache.getIfPresent(isrc);
+        return song == null ? null : song.orElse(null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsCreated(SongsCreatedEvent event) {
+        cache.invalidateAll(event.songs().stream().map(Song::getIsrc).toList());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsUpdated(SongsUpdatedEvent event) {
+        cache.invalidateAll(event.isrcs());
+    }
+
+    /**
+     * Rough heap footprint: object headers and boxed numbers plus two bytes per character of the
+     * variable-length strings.
+     */
+    private static int estimateBytes(SongDTO song) {
+        int chars = length(song.getTrackName()) + length(song.getArtistNames()) + length(song.getArtistUris())
+                + length(song.getAlbumName()) + length(song.getAlbumArtistNames()) + length(song.getAlbumArtistUris())
+                + length(song.getAlbumImageUrl()) + length(song.getTrackPreviewUrl()) + length(song.getArtistGenres())
+                + length(song.getAlbumGenres()) + length(song.getLabel()) + length(song.getCopyrights());
+        int bytes = 1024 + chars * 2;
+        SongV2DTO songV2 = song.getSongV2();
+        if (songV2 != null) {
+            bytes += 1024 + (length(songV2.getTrack()) + length(songV2.getAlbumName()) + length(songV2.getArtist())) * 2;
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,134 @@
+package songservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import songservice.catalog.SongsCreatedEvent;
+import songservice.catalog.SongsUpdatedEvent;
+import songservice.dto.SongDisplay;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caches result pages of the list endpoints as compact ISRC lists plus their total count, and the
+ * songs on them in a shared per-song display cache. Keys carry the catalog version, so every write
+ * makes all cached pages unreachable; they are also dropped eagerly to free the memory.
+ */
+@Component
+public class SongPageCache {
+
+    private final boolean enabled;
+    private final Cache<SongPageKey, CachedPage> pages;
+    private final Cache<String, SongDisplay> displays;
+
+    @Autowired
+    public SongPageCache(MeterRegistry meterRegistry,
+                         @Value("${spotifo.cache.pages.enabled:true}") boolean enabled,
+                         @Value("${spotifo.cache.pages.max-pages:10000}") long maxPages,
+                         @Value("${spotifo.cache.pages.ttl:5m}") Duration ttl,
+                         @Value("${spotifo.cache.pages.max-displays:100000}") long maxDisplays) {
+        this.enabled = enabled;
+        this.pages = Caffeine.newBuilder().maximumSize(maxPages).expireAfterWrite(ttl).recordStats().build();
+        this.displays = Caffeine.newBuilder().maximumSize(maxDisplays).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "songPages");
+        CaffeineCacheMetrics.monitor(meterRegistry, displays, "songDisplays");
+    }
+
+    /**
+     * Returns the cached page, hydrating its songs from the display cache and loading any that were
+     * evicted through {@code hydrator}; on a miss runs {@code loader} and remembers the result.
+     */
+    public Page<SongDisplay> get(SongPageKey key, Pageable pageable, Supplier<Page<SongDisplay>> loader,
+                                 Function<Collection<String>, List<SongDisplay>> hydrator) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CachedPage cached = pages.getIfPresent(key);
+        if (cached != null) {
+            List<SongDisplay> content = getDisplays(cached.isrcs(), hydrator);
+            if (content != null) {
+                return new PageImpl<>(content, pageable, cached.total());
+            }
+        }
+        Page<SongDisplay> page = loader.get();
+        page.forEach(song -> displays.put(song.getIsrc(), song));
+        pages.put(key, new CachedPage(page.getContent().stream().map(SongDisplay::getIsrc).toList(), page.getTotalElements()));
+        return page;
+    }
+
+    /**
+     * Display rows for the given ISRCs in order, or {@code null} if any of them no longer exists.
+     */
+    public List<SongDisplay> getDisplays(List<String> isrcs, Function<Collection<String>, List<SongDisplay>> hydrator) {
+        Map<String, SongDisplay> found = getDisplayMap(isrcs, hydrator);
+        List<SongDisplay> content = new ArrayList<>(isrcs.size());
+        for (String isrc : isrcs) {
+            SongDisplay song = found.get(isrc);
+            if (song == null) {
+                return null;
+            }
+            content.add(song);
+        }
+        return content;
+    }
+
+    /**
+     * Display rows of the given ISRCs that exist, loading the uncached ones with one {@code hydrator} call.
+     * With the cache disabled every one of them is loaded.
+     */
+    public Map<String, SongDisplay> getDisplayMap(Collection<String> isrcs, Function<Collection<String>, List<SongDisplay>> hydrator) {
+        if (!enabled) {
+            Map<String, SongDisplay> loaded = new HashMap<>();
+            hydrator.apply(List.copyOf(new LinkedHashSet<>(isrcs))).forEach(song -> loaded.put(song.getIsrc(), song));
+            return loaded;
+        }
+        return displays.getAll(isrcs, missing -> {
+            Map<String, SongDisplay> loaded = new HashMap<>();
+            hydrator.apply(toList(missing)).forEach(song -> loaded.put(song.getIsrc(), song));
+            return loaded;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsCreated(SongsCreatedEvent event) {
+        if (!event.songs().isEmpty()) {
+            pages.invalidateAll();
+        }
+    }
+
+    /**
+     * Updated songs keep their display columns but can move in metric-sorted and reach-filtered pages.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsUpdated(SongsUpdatedEvent event) {
+        if (!event.isrcs().isEmpty()) {
+            pages.invalidateAll();
+        }
+    }
+
+    private static List<String> toList(Iterable<? extends String> isrcs) {
+        List<String> list = new ArrayList<>();
+        isrcs.forEach(list::add);
+        return list;
+    }
+
+    private record CachedPage(List<String> isrcs, long total) {
+    }
+}
@@ -0,0 +1,24 @@
+package songservice.cache;
+
+import songservice.dto.SongFilter;
+
+import java.util.Locale;
+
+/**
+ * Normalized identity of a result page. Filters are lower-cased because matching is
+ * case-insensitive, so "Weeknd" and "weeknd" share an entry.
+ */
+public record SongPageKey(long catalogVersion, String query, int page, int size, String sortBy, boolean ascending,
+                          String trackName, String artistName, String albumName, String releaseYear, int minPopularity,
+                          Long minReach, Long maxReach) {
+
+    public static SongPageKey of(long catalogVersion, String query, int page, int size, String sortBy, boolean ascending, SongFilter filter) {
+        return new SongPageKey(catalogVersion, query, page, size, sortBy, ascending,
+                lower(filter.trackName()), lower(filter.artistName()), lower(filter.albumName()),
+                lower(filter.releaseYear()), filter.minPopularity(), filter.minReach(), filter.maxReach());
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
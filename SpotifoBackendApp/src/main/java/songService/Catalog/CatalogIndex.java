@@ -0,0 +1,20 @@
+package songservice.catalog;
+
+import songservice.entity.Song;
+
+/**
+ * An in-memory structure derived from the song catalog. Implementations are fed by
+ * {@link SongCatalog}: once with every stored song at startup and again for each song created later.
+ * Ordinals are dense, start at zero and are shared by every index.
+ */
+public interface CatalogIndex {
+
+    void add(int ordinal, Song song);
+
+    /**
+     * Called once the startup load has fed every stored song, for indexes that defer building
+     * until the bulk of the catalog is known.
+     */
+    default void loaded() {
+    }
+}
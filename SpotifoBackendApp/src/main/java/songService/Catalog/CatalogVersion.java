@@ -0,0 +1,55 @@
+package songservice.catalog;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the catalog, bumped after every committed write and whenever pages start
+ * being served from another source. Anything derived from more than one song (result pages,
+ * aggregates) is valid only for the version it was computed at.
+ * Versions restart at zero with the process, so anything handed to clients should also carry the
+ * {@link #epoch()} it was issued in.
+ */
+@Component
+public class CatalogVersion {
+
+    private final long epoch = System.currentTimeMillis() << 16 | ThreadLocalRandom.current().nextInt(1 << 16);
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Differs between any two runs of the service, including instances started side by side.
+     */
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Moves to a new version without a write, for when the content of pages may change anyway (a
+     * different catalog snapshot answering them). Call it once the new source is in place.
+     */
+    public void advance() {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsCreated(SongsCreatedEvent event) {
+        if (!event.songs().isEmpty()) {
+            version.incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsUpdated(SongsUpdatedEvent event) {
+        if (!event.isrcs().isEmpty()) {
+            version.incrementAndGet();
+        }
+    }
+}
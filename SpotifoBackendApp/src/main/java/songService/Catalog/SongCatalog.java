@@ -0,0 +1,128 @@
+package songservice.catalog;
+
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import songservice.bulkhead.BulkheadTransactionTemplate;
+import songservice.bulkhead.DatabaseBulkhead;
+import songservice.entity.Song;
+import songservice.repository.SongRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Assigns every song a dense ordinal and feeds all {@link CatalogIndex} beans. The table is streamed
+ * once at startup and later creations arrive through {@link SongsCreatedEvent}.
+ */
+@Component
+public class SongCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongCatalog.class);
+    private final SongRepository songRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<CatalogIndex> indexProvider;
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private List<CatalogIndex> indexes;
+    private volatile String[] isrcs = new String[1024];
+    private volatile int size;
+    private volatile boolean loaded;
+
+    @Autowired
+    public SongCatalog(SongRepository songRepository, EntityManager entityManager,
+                       PlatformTransactionManager transactionManager, ObjectProvider<DatabaseBulkhead> bulkhead,
+                       ObjectProvider<CatalogIndex> indexProvider) {
+        this.songRepository = songRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new BulkheadTransactionTemplate(transactionManager, bulkhead);
+        this.transactionTemplate.setReadOnly(true);
+        this.indexProvider = indexProvider;
+    }
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            indexes = indexProvider.orderedStream().toList();
+        }
+        if (indexes.isEmpty()) {
+            loaded = true;
+            return;
+        }
+        logger.info("Loading song catalog into {} in-memory index(es)", indexes.size());
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Song> songs = songRepository.streamAll()) {
+                    songs.forEach(song -> {
+                        add(song);
+                        if (song.getSongV2() != null) {
+                            entityManager.detach(song.getSongV2());
+                        }
+                        entityManager.detach(song);
+                    });
+                }
+            });
+            indexes.forEach(CatalogIndex::loaded);
+            loaded = true;
+            logger.info("Loaded {} songs into the catalog in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+        } catch (DataAccessException e) {
+            logger.error("Database error while loading the song catalog", e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsCreated(SongsCreatedEvent event) {
+        event.songs().forEach(this::add);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String isrcOf(int ordinal) {
+        return isrcs[ordinal];
+    }
+
+    public int ordinalOf(String isrc) {
+        Integer ordinal = ordinals.get(isrc);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    private synchronized void add(Song song) {
+        // Songs committed before the initial load starts are picked up by the stream itself
+        if (indexes == null || song.getIsrc() == null || ordinals.containsKey(song.getIsrc())) {
+            return;
+        }
+        int ordinal = size;
+        if (ordinal == isrcs.length) {
+            isrcs = Arrays.copyOf(isrcs, ordinal * 2);
+        }
+        isrcs[ordinal] = song.getIsrc();
+        for (CatalogIndex index : indexes) {
+            index.add(ordinal, song);
+        }
+        // Published only once every index holds the song, so a reader never sees an ordinal they don't know
+        ordinals.put(song.getIsrc(), ordinal);
+        size = ordinal + 1;
+    }
+}
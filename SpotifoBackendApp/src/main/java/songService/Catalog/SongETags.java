@@ -0,0 +1,112 @@
+package songservice.catalog;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import songservice.entity.Song;
+import songservice.entity.SongV2;
+import songservice.repository.SongJdbcRepository;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entity tags computed without touching the database, so a conditional GET can be answered with 304
+ * before anything is looked up. A song's tag hashes its stored songs2025 and songs2024 columns, so
+ * every instance and every run issues the same tag for the same content. A result page's tag is the
+ * catalog version, since any write can reorder pages, and carries the catalog epoch because versions
+ * restart with the process. Tags are weak because they identify the content rather than the bytes,
+ * which differ once the response is compressed (Tomcat doesn't compress responses carrying a strong
+ * tag).
+ */
+@Component
+public class SongETags implements CatalogIndex {
+
+    private final SongCatalog catalog;
+    private final CatalogVersion version;
+    private volatile int[] hashes = new int[1024];
+    private volatile int[] songV2Hashes = new int[1024];
+    // Updated without their new content; these go untagged rather than tagged with a guess
+    private final Set<Integer> unknown = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public SongETags(SongCatalog catalog, CatalogVersion version) {
+        this.catalog = catalog;
+        this.version = version;
+    }
+
+    @Override
+    public synchronized void add(int ordinal, Song song) {
+        if (ordinal >= hashes.length) {
+            int capacity = Math.max(ordinal + 1, hashes.length * 2);
+            songV2Hashes = Arrays.copyOf(songV2Hashes, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+        }
+        songV2Hashes[ordinal] = hash(song.getSongV2());
+        hashes[ordinal] = Arrays.hashCode(SongJdbcRepository.SONGS.values(song));
+    }
+
+    /**
+     * The content hash a song's tag is made of, for the song as it is stored with its songs2024 row.
+     */
+    public static int contentHash(Song song) {
+        return contentHash(Arrays.hashCode(SongJdbcRepository.SONGS.values(song)), hash(song.getSongV2()));
+    }
+
+    /**
+     * @return the tag of {@code GET /song/{isrc}}, or {@code null} while the song isn't in the catalog
+     */
+    public String song(String isrc) {
+        Integer hash = contentHash(isrc);
+        return hash == null ? null : "W/\"" + Integer.toHexString(hash) + "\"";
+    }
+
+    /**
+     * @return the {@link #contentHash(Song)} the song's tag stands for, or {@code null} while it has none
+     */
+    public Integer contentHash(String isrc) {
+        int ordinal = catalog.isLoaded() ? catalog.ordinalOf(isrc) : -1;
+        int[] current = hashes;
+        int[] songV2 = songV2Hashes;
+        if (ordinal < 0 || ordinal >= current.length || ordinal >= songV2.length || unknown.contains(ordinal)) {
+            return null;
+        }
+        return contentHash(current[ordinal], songV2[ordinal]);
+    }
+
+    /**
+     * @return the tag of every list page at the current catalog version
+     */
+    public String pages() {
+        return "W/\"" + Long.toString(version.epoch(), 36) + "-v" + version.current() + "\"";
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onSongsUpdated(SongsUpdatedEvent event) {
+        Set<String> attached = new HashSet<>();
+        for (SongV2 songV2 : event.attached()) {
+            int ordinal = catalog.ordinalOf(songV2.getIsrc());
+            if (ordinal >= 0 && ordinal < songV2Hashes.length) {
+                songV2Hashes[ordinal] = hash(songV2);
+                attached.add(songV2.getIsrc());
+            }
+        }
+        for (String isrc : event.isrcs()) {
+            int ordinal = catalog.ordinalOf(isrc);
+            if (ordinal >= 0 && !attached.contains(isrc)) {
+                unknown.add(ordinal);
+            }
+        }
+    }
+
+    private static int hash(SongV2 songV2) {
+        return songV2 == null ? 0 : Arrays.hashCode(SongJdbcRepository.SONGS_V2.values(songV2));
+    }
+
+    private static int contentHash(int song, int songV2) {
+        return song * 31 + songV2;
+    }
+}
@@ -0,0 +1,11 @@
+package songservice.catalog;
+
+import songservice.entity.Song;
+
+import java.util.List;
+
+/**
+ * Published whenever songs are written to the catalog, so in-memory indexes and caches can follow.
+ */
+public record SongsCreatedEvent(List<Song> songs) {
+}
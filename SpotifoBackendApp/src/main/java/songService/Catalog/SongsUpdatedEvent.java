@@ -0,0 +1,18 @@
+package songservice.catalog;
+
+import songservice.entity.SongV2;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when stored songs change without new ISRCs being created, such as songs2024 rows being
+ * attached to existing songs, so caches and validators derived from them can be dropped. The
+ * attached songs2024 rows are carried along where the publisher has them.
+ */
+public record SongsUpdatedEvent(Collection<String> isrcs, List<SongV2> attached) {
+
+    public SongsUpdatedEvent(Collection<String> isrcs) {
+        this(isrcs, List.of());
+    }
+}
@@ -0,0 +1,50 @@
+package songservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.StatisticsSettings;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import songservice.metrics.TimedJacksonConverter;
+import songservice.metrics.TimedStatistics;
+
+import java.util.List;
+
+/**
+ * Meters that Spring Boot does not bind by itself. Endpoint ({@code http.server.requests}),
+ * repository method ({@code spring.data.repository.invocations}), Hikari pool ({@code hikaricp.*})
+ * and Hibernate session ({@code hibernate.*}) meters come from the actuator; this adds query timings
+ * split by kind, lazy loads per entity and JSON serialization time.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    @Autowired
+    public MetricsConfig(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer timedStatistics() {
+        return properties -> properties.put(StatisticsSettings.STATS_BUILDER,
+                (StatisticsFactory) sessionFactory -> new TimedStatistics(sessionFactory, registry.getObject()));
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter json) {
+                converters.set(i, new TimedJacksonConverter(json.getObjectMapper(), registry.getObject()));
+                return;
+            }
+        }
+    }
+}
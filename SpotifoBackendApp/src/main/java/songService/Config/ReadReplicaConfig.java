@@ -0,0 +1,93 @@
+package songservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import songservice.datasource.ReadWriteRoutingDataSource;
+import songservice.datasource.ReadYourWrites;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with one pool for the primary ({@code spring.datasource.*})
+ * and one per URL in {@code spotifo.datasource.replicas}, all sharing the primary's credentials and
+ * {@code spring.datasource.hikari.*} settings, behind a {@link ReadWriteRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spotifo.datasource", name = "routing", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${spotifo.datasource.read-your-writes:2s}") Duration window) {
+        return new ReadYourWrites(window);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, ReadYourWrites readYourWrites,
+                                 ObjectProvider<MeterRegistry> registry) {
+        Binder binder = Binder.get(environment);
+        List<String> urls = binder.bind("spotifo.datasource.replicas", Bindable.listOf(String.class)).orElse(List.of());
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("spotifo.datasource.routing is enabled but no spotifo.datasource.replicas are configured");
+        }
+        MeterRegistry meterRegistry = registry.getObject();
+        HikariDataSource primary = pool(properties, binder, properties.determineUrl(), "primary", meterRegistry);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = pool(properties, binder, urls.get(i), "replica-" + (i + 1), meterRegistry);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        logger.info("Routing read-only transactions to {} replica(s)", replicas.size());
+        return new RoutingDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas, readYourWrites, meterRegistry));
+    }
+
+    /**
+     * The lazy proxy in front of the router, closing the pools with the context (the bean's inferred
+     * destroy method).
+     */
+    static class RoutingDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+
+        private final ReadWriteRoutingDataSource router;
+
+        RoutingDataSourceProxy(ReadWriteRoutingDataSource router) {
+            super(router);
+            this.router = router;
+        }
+
+        @Override
+        public void close() throws IOException {
+            router.close();
+        }
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String url, String name,
+                                         MeterRegistry registry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        return pool;
+    }
+}
@@ -0,0 +1,31 @@
+package songservice.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import songservice.dto.ImportReport;
+import songservice.service.CsvImportService;
+
+@RestController
+public class ImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportController.class);
+    private final CsvImportService csvImportService;
+
+    @Autowired
+    public ImportController(CsvImportService csvImportService) {
+        this.csvImportService = csvImportService;
+    }
+
+    @PostMapping("/import/{dataset}")
+    public ResponseEntity<ImportReport> importDataset(@PathVariable String dataset,
+                                                      @RequestParam(required = false, defaultValue = "true") boolean resume) {
+        logger.info("Received Request to import dataset: {}", dataset);
+        return ResponseEntity.ok(csvImportService.importDataset(dataset, resume));
+    }
+}
@@ -1,33 +1,101 @@
 package songservice.controller;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import songservice.catalog.SongETags;
+import songservice.dto.ExportFormat;
+import songservice.dto.FacetedSongs;
+import songservice.dto.IngestReport;
+import songservice.dto.ScoredSong;
+import songservice.dto.SimilarSong;
 import songservice.dto.SongDTO;
 import songservice.dto.SongDisplay;
+import songservice.dto.SongFilter;
+import songservice.dto.SongLookup;
+import songservice.dto.SongLookupRequest;
+import songservice.dto.SongSlice;
+import songservice.limit.ExportLimit;
+import songservice.service.SongExportService;
+import songservice.service.SongIngestService;
 import songservice.service.SongService;
+import songservice.snapshot.SongSnapshotStore;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 public class SongController {
 
     private static final Logger logger = LoggerFactory.getLogger(SongController.class);
     private final SongService songService;
+    private final SongIngestService songIngestService;
+    private final SongExportService songExportService;
+    private final ExportLimit exportLimit;
+    private final ObjectMapper objectMapper;
+    private final SongETags eTags;
+    private final SongSnapshotStore snapshots;
+    private final CacheControl songCacheControl;
+    private final CacheControl pageCacheControl;
 
     @Autowired
-    public SongController(SongService songService) {
+    public SongController(SongService songService, SongIngestService songIngestService,
+                          SongExportService songExportService, ExportLimit exportLimit, ObjectMapper objectMapper, SongETags eTags,
+                          ObjectProvider<SongSnapshotStore> snapshots,
+                          @Value("${spotifo.http-cache.song.max-age:60s}") Duration songMaxAge,
+                          @Value("${spotifo.http-cache.song.shared-max-age:5m}") Duration songSharedMaxAge,
+                          @Value("${spotifo.http-cache.pages.max-age:0s}") Duration pageMaxAge,
+                          @Value("${spotifo.http-cache.pages.shared-max-age:30s}") Duration pageSharedMaxAge) {
         this.songService = songService;
+        this.songIngestService = songIngestService;
+        this.songExportService = songExportService;
+        this.exportLimit = exportLimit;
+        this.objectMapper = objectMapper;
+        this.eTags = eTags;
+        this.snapshots = snapshots.getIfAvailable();
+        this.songCacheControl = CacheControl.maxAge(songMaxAge).sMaxAge(songSharedMaxAge).cachePublic();
+        this.pageCacheControl = CacheControl.maxAge(pageMaxAge).sMaxAge(pageSharedMaxAge).cachePublic();
     }
 
     @GetMapping("/songs")
     public ResponseEntity<Page<SongDisplay>> getAllSongs(@RequestParam(name = "page", required = false, defaultValue = "1") int page,
-                                                         @RequestParam(name = "size", required = false, defaultValue = "12") int size) {
+                                                         @RequestParam(name = "size", required = false, defaultValue = "12") int size,
+                                                         ServletWebRequest request) {
         logger.info("Received Request to get all songs");
-        Page<SongDisplay> songDisplays = songService.getAllSongs(page, size);
-        return ResponseEntity.ok(songDisplays);
+        String eTag = eTags.pages();
+        if (notModified(request, eTag, pageCacheControl)) {
+            return null;
+        }
+        Page<SongDisplay> songDisplays = snapshots == null ? null : snapshots.songsByPopularity(page, size);
+        if (songDisplays == null) {
+            songDisplays = songService.getAllSongs(page, size);
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(pageCacheControl).body(songDisplays);
     }
 
     @GetMapping("/song")
@@ -39,16 +107,131 @@ public class SongController {
                                                       @RequestParam(required = false, defaultValue = "") String artistname,
                                                       @RequestParam(required = false, defaultValue = "") String albumname,
                                                       @RequestParam(required = false, defaultValue = "") String releaseyear,
-                                                      @RequestParam(required = false, defaultValue = "0") int minpopularity) {
+                                                      @RequestParam(required = false, defaultValue = "0") int minpopularity,
+                                                      @RequestParam(required = false) Long minreach,
+                                                      @RequestParam(required = false) Long maxreach,
+                                                      ServletWebRequest request) {
         logger.info("Received Request to get songs by sorting, filtering and searching");
-        Page<SongDisplay> songDisplays = songService.getSongs(page, size, sortby, sortdirection, songname, artistname, albumname, releaseyear, minpopularity);
-        return ResponseEntity.ok(songDisplays);
+        String eTag = eTags.pages();
+        if (notModified(request, eTag, pageCacheControl)) {
+            return null;
+        }
+        Page<SongDisplay> songDisplays = songService.getSongs(page, size, sortby, sortdirection, songname, artistname, albumname, releaseyear, minpopularity, minreach, maxreach);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(pageCacheControl).body(songDisplays);
+    }
+
+    @GetMapping(value = "/songs", params = "cursor")
+    public ResponseEntity<SongSlice> scrollAllSongs(@RequestParam(name = "cursor") String cursor,
+                                                    @RequestParam(name = "size", required = false, defaultValue = "12") int size) {
+        logger.info("Received Request to scroll all songs");
+        return ResponseEntity.ok(songService.scrollAllSongs(cursor, size));
+    }
+
+    @GetMapping(value = "/song", params = "cursor")
+    public ResponseEntity<SongSlice> scrollSongs(@RequestParam String cursor,
+                                                 @RequestParam(required = false, defaultValue = "12") int size,
+                                                 @RequestParam(required = false, defaultValue = "popularity") String sortby,
+                                                 @RequestParam(required = false, defaultValue = "DESC") String sortdirection,
+                                                 @RequestParam(required = false, defaultValue = "") String songname,
+                                                 @RequestParam(required = false, defaultValue = "") String artistname,
+                                                 @RequestParam(required = false, defaultValue = "") String albumname,
+                                                 @RequestParam(required = false, defaultValue = "") String releaseyear,
+                                                 @RequestParam(required = false, defaultValue = "0") int minpopularity) {
+        logger.info("Received Request to scroll songs by sorting, filtering and searching");
+        SongSlice songSlice = songService.scrollSongs(cursor, size, sortby, sortdirection, songname, artistname, albumname, releaseyear, minpopularity);
+        return ResponseEntity.ok(songSlice);
+    }
+
+    /**
+     * Streams every matching song in ISRC order. Without any filter parameter the whole catalog is
+     * exported, including songs without a popularity; the format is validated before anything is written
+     * so a bad request still gets a proper 400, and an export over {@code spotifo.export.max-concurrent}
+     * a proper 503.
+     */
+    @GetMapping("/songs/export")
+    public ResponseEntity<StreamingResponseBody> exportSongs(@RequestParam(required = false, defaultValue = "ndjson") String format,
+                                                             @RequestParam(required = false, defaultValue = "false") boolean songv2,
+                                                             @RequestParam(required = false) String songname,
+                                                             @RequestParam(required = false) String artistname,
+                                                             @RequestParam(required = false) String albumname,
+                                                             @RequestParam(required = false) String releaseyear,
+                                                             @RequestParam(required = false) Integer minpopularity) {
+        logger.info("Received Request to export songs as {}", format);
+        ExportFormat exportFormat = ExportFormat.of(format);
+        SongFilter filter = songname == null && artistname == null && albumname == null && releaseyear == null && minpopularity == null
+                ? null
+                : new SongFilter(songname, artistname, albumname, releaseyear, minpopularity == null ? 0 : minpopularity);
+        exportLimit.acquire();
+        StreamingResponseBody body = out -> {
+            try {
+                songExportService.exportSongs(filter, songv2, exportFormat, out);
+            } finally {
+                exportLimit.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.mediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("songs." + exportFormat.name().toLowerCase(Locale.ROOT)).build().toString())
+                .body(body);
     }
 
     @GetMapping("/song/{isrc}")
-    public ResponseEntity<SongDTO> getSongByIsrc(@PathVariable String isrc) {
+    public ResponseEntity<SongDTO> getSongByIsrc(@PathVariable String isrc, ServletWebRequest request) {
         logger.info("Received Request to get song by ISRC: {}", isrc);
-        return ResponseEntity.ok(songService.getSongByIsrc(isrc));
+        String eTag = eTags.song(isrc);
+        if (notModified(request, eTag, songCacheControl)) {
+            return null;
+        }
+        SongDTO song = snapshots == null ? null : snapshots.song(isrc);
+        if (song == null) {
+            song = songService.getSongByIsrc(isrc);
+        }
+        return eTag == null ? ResponseEntity.ok(song) : ResponseEntity.ok().eTag(eTag).cacheControl(songCacheControl).body(song);
+    }
+
+    /**
+     * Sparse fieldset, e.g. {@code fields=isrc,trackName,songV2.spotifyStreams}: only the named
+     * columns are selected and serialized.
+     */
+    @GetMapping(value = "/song/{isrc}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getSongFieldsByIsrc(@PathVariable String isrc, @RequestParam String fields,
+                                                                   ServletWebRequest request) {
+        logger.info("Received Request to get fields {} of song by ISRC: {}", fields, isrc);
+        String eTag = eTags.song(isrc);
+        if (notModified(request, eTag, songCacheControl)) {
+            return null;
+        }
+        Map<String, Object> song = songService.getSongFieldsByIsrc(isrc, fields);
+        return eTag == null ? ResponseEntity.ok(song) : ResponseEntity.ok().eTag(eTag).cacheControl(songCacheControl).body(song);
+    }
+
+    @GetMapping("/song/search")
+    public ResponseEntity<List<ScoredSong>> searchSongs(@RequestParam String q,
+                                                        @RequestParam(required = false, defaultValue = "1") int page,
+                                                        @RequestParam(required = false, defaultValue = "12") int size,
+                                                        @RequestParam(required = false, defaultValue = "true") boolean fuzzy) {
+        logger.info("Received Request to search songs by relevance: {}", q);
+        return ResponseEntity.ok(songService.searchSongs(q, page, size, fuzzy));
+    }
+
+    @GetMapping("/song/faceted")
+    public ResponseEntity<FacetedSongs> getFacetedSongs(@RequestParam(required = false, defaultValue = "1") int page,
+                                                        @RequestParam(required = false, defaultValue = "12") int size,
+                                                        @RequestParam(required = false) String genres,
+                                                        @RequestParam(required = false, defaultValue = "any") String genremode,
+                                                        @RequestParam(required = false) String releaseyear,
+                                                        @RequestParam(required = false) Integer minpopularity,
+                                                        @RequestParam(required = false, defaultValue = "20") int facets) {
+        logger.info("Received Request to get songs by genre facets");
+        return ResponseEntity.ok(songService.getFacetedSongs(page, size, genres, genremode, releaseyear, minpopularity, facets));
+    }
+
+    @GetMapping("/song/{isrc}/similar")
+    public ResponseEntity<List<SimilarSong>> getSimilarSongs(@PathVariable String isrc,
+                                                             @RequestParam(required = false, defaultValue = "10") int k) {
+        logger.info("Received Request to get songs similar to ISRC: {}", isrc);
+        return ResponseEntity.ok(songService.getSimilarSongs(isrc, k));
     }
 
     @PostMapping("/song")
@@ -56,4 +239,107 @@ public class SongController {
         logger.info("Received Request to create user");
         return new ResponseEntity<>(songService.createSong(songDTO), HttpStatus.CREATED);
     }
+
+    /**
+     * Resolves up to {@code spotifo.lookup.max-isrcs} ISRCs in one call. Songs come back in request
+     * order, unknown ISRCs are listed under {@code missing}; {@code display=true} returns only the
+     * display columns. A batch the catalog snapshot holds entirely is answered without the database.
+     */
+    @PostMapping("/songs/lookup")
+    public ResponseEntity<SongLookup<?>> lookupSongs(@RequestBody SongLookupRequest lookupRequest,
+                                                     @RequestParam(required = false, defaultValue = "false") boolean display) {
+        logger.info("Received Request to look up songs by ISRC");
+        List<String> isrcs = lookupRequest.getIsrcs();
+        SongLookup<?> songs = snapshots == null ? null
+                : display ? snapshots.lookupSongDisplays(isrcs) : snapshots.lookupSongs(isrcs);
+        if (songs == null) {
+            songs = display ? songService.lookupSongDisplays(isrcs) : songService.lookupSongs(isrcs);
+        }
+        return ResponseEntity.ok(songs);
+    }
+
+    /**
+     * Accepts a JSON array or NDJSON stream of songs and answers with NDJSON: one result line per song
+     * followed by the ingest report. Both sides are streamed, so memory stays flat for any payload size.
+     */
+    @PostMapping(value = "/songs/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void bulkCreateSongs(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.info("Received Request to bulk create songs");
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (MappingIterator<SongDTO> songs = objectMapper.readerFor(SongDTO.class).readValues(request.getInputStream());
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(response.getOutputStream())) {
+            SongReader reader = new SongReader(songs);
+            IngestReport report = songIngestService.ingest(reader, result -> {
+                try {
+                    writer.write(result);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Client disconnected during bulk ingest", e);
+                }
+            });
+            if (report.getError() == null) {
+                report.setError(reader.error);
+            }
+            writer.write(report);
+        }
+    }
+
+    /**
+     * Answers 304 when the client's copy still carries the current tag, before the service is called.
+     */
+    private static boolean notModified(ServletWebRequest request, String eTag, CacheControl cacheControl) {
+        if (eTag == null || !request.checkNotModified(eTag)) {
+            return false;
+        }
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        return true;
+    }
+
+    /**
+     * Yields {@code null} for items that don't bind to {@link SongDTO} and stops at the first syntax
+     * error, since the stream can't be resynchronised after it.
+     */
+    private static final class SongReader implements Iterator<SongDTO> {
+
+        private final MappingIterator<SongDTO> songs;
+        private String error;
+
+        private SongReader(MappingIterator<SongDTO> songs) {
+            this.songs = songs;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (error != null) {
+                return false;
+            }
+            try {
+                return songs.hasNextValue();
+            } catch (JsonProcessingException e) {
+                error = "Malformed payload: " + e.getOriginalMessage();
+                return false;
+            } catch (IOException e) {
+                error = "Failed to read payload";
+                return false;
+            }
+        }
+
+        @Override
+        public SongDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return songs.nextValue();
+            } catch (JsonParseException e) {
+                error = "Malformed payload: " + e.getOriginalMessage();
+                return null;
+            } catch (JsonMappingException e) {
+                return null;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,29 @@
+package songservice.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import songservice.dto.CatalogStats;
+import songservice.service.StatisticsService;
+
+@RestController
+public class StatisticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsController.class);
+    private final StatisticsService statisticsService;
+
+    @Autowired
+    public StatisticsController(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogStats> getStatistics(@RequestParam(required = false, defaultValue = "20") int top) {
+        logger.info("Received Request to get catalog statistics");
+        return ResponseEntity.ok(statisticsService.getStatistics(top));
+    }
+}
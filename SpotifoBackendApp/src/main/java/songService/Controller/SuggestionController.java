@@ -0,0 +1,30 @@
+package songservice.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import songservice.dto.Suggestion;
+import songservice.service.SuggestionService;
+
+import java.util.List;
+
+@RestController
+public class SuggestionController {
+
+    private final SuggestionService suggestionService;
+
+    @Autowired
+    public SuggestionController(SuggestionService suggestionService) {
+        this.suggestionService = suggestionService;
+    }
+
+    // Called on every keystroke, so unlike the other endpoints it does not log each request
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam String q,
+                                                    @RequestParam(required = false, defaultValue = "") String type,
+                                                    @RequestParam(required = false, defaultValue = "8") int limit) {
+        return ResponseEntity.ok(suggestionService.suggest(q, type, limit));
+    }
+}
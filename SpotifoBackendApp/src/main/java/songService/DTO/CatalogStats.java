@@ -0,0 +1,22 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStats {
+
+    private long totalSongs;
+    private Double explicitRatio;
+    private List<YearStats> years;
+    private List<NamedCount> artistGenres;
+    private List<NamedCount> albumGenres;
+    private List<NamedCount> labels;
+}
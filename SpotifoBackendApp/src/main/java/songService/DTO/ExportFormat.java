@@ -0,0 +1,32 @@
+package songservice.dto;
+
+import songservice.exception.InvalidQueryException;
+
+import java.util.Locale;
+
+/**
+ * Body formats of {@code GET /songs/export}.
+ */
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    ExportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryException("Unknown export format: " + name + " (expected ndjson or csv)");
+        }
+    }
+}
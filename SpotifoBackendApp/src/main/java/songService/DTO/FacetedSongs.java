@@ -0,0 +1,22 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSongs {
+
+    private List<SongDisplay> songs;
+    private int page;
+    private int size;
+    private long totalElements;
+    private List<NamedCount> genres;
+    private List<NamedCount> years;
+}
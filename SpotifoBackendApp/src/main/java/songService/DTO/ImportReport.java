@@ -0,0 +1,22 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+
+    private String dataset;
+    private long resumedFromRow;
+    private long rowsRead;
+    private long rowsInserted;
+    private long duplicates;
+    private long invalid;
+    private long elapsedMs;
+    private double rowsPerSecond;
+}
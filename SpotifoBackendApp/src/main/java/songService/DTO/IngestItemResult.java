@@ -0,0 +1,20 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestItemResult {
+
+    public enum Status { CREATED, DUPLICATE, INVALID }
+
+    private long index;
+    private String isrc;
+    private Status status;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestReport {
+
+    private long received;
+    private long created;
+    private long duplicates;
+    private long invalid;
+    private int chunks;
+    private long elapsedMs;
+    private double songsPerSecond;
+    private String error;
+}
@@ -0,0 +1,58 @@
+package songservice.dto;
+
+import songservice.exception.InvalidQueryException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A sparse fieldset such as {@code isrc,trackName,songV2.spotifyStreams}: {@link SongDTO} properties
+ * plus {@link SongV2DTO} properties prefixed with {@code songV2.}; a bare {@code songV2} selects all
+ * of them.
+ */
+public record SongFields(List<String> song, List<String> songV2) {
+
+    private static final String SONG_V2 = "songV2";
+    private static final List<String> ALL_SONG = properties(SongDTO.class);
+    private static final List<String> ALL_SONG_V2 = properties(SongV2DTO.class);
+
+    public static SongFields parse(String fields) {
+        Set<String> song = new LinkedHashSet<>();
+        Set<String> songV2 = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (name.equals(SONG_V2)) {
+                songV2.addAll(ALL_SONG_V2);
+            } else if (name.startsWith(SONG_V2 + ".") && ALL_SONG_V2.contains(name.substring(SONG_V2.length() + 1))) {
+                songV2.add(name.substring(SONG_V2.length() + 1));
+            } else if (ALL_SONG.contains(name)) {
+                song.add(name);
+            } else {
+                throw new InvalidQueryException("Unknown field: " + name);
+            }
+        }
+        if (song.isEmpty() && songV2.isEmpty()) {
+            throw new InvalidQueryException("fields must name at least one field");
+        }
+        return new SongFields(new ArrayList<>(song), new ArrayList<>(songV2));
+    }
+
+    public boolean includesSongV2() {
+        return !songV2.isEmpty();
+    }
+
+    private static List<String> properties(Class<?> type) {
+        return Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.getName().equals(SONG_V2))
+                .map(Field::getName)
+                .toList();
+    }
+}
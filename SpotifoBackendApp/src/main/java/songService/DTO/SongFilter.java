@@ -0,0 +1,20 @@
+package songservice.dto;
+
+/**
+ * The substring filters accepted by {@code GET /song}. A {@code null} value means "no constraint";
+ * any other value, including the empty string, requires the column to be present and to contain it
+ * (or, for the release year, to start with it), matching the JPQL semantics of {@code findSongs}.
+ * The reach bounds are inclusive limits on {@code song_metrics.total_reach}; {@code null} leaves that
+ * side open.
+ */
+public record SongFilter(String trackName, String artistName, String albumName, String releaseYear, int minPopularity,
+                         Long minReach, Long maxReach) {
+
+    public SongFilter(String trackName, String artistName, String albumName, String releaseYear, int minPopularity) {
+        this(trackName, artistName, albumName, releaseYear, minPopularity, null, null);
+    }
+
+    public boolean hasReachBounds() {
+        return minReach != null || maxReach != null;
+    }
+}
@@ -0,0 +1,21 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Songs found by a batch lookup in request order, and the requested ISRCs that don't exist.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SongLookup<T> {
+
+    private List<T> songs;
+    private List<String> missing;
+}
@@ -0,0 +1,15 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SongLookupRequest {
+
+    private List<String> isrcs;
+}
@@ -1,6 +1,7 @@
 package songservice.dto;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import songservice.entity.Song;
 
@@ -11,6 +12,12 @@ public interface SongMapper {
 
     SongDTO toDTO(Song song);
 
+    /**
+     * Leaves {@code songV2} unset without touching the lazy association.
+     */
+    @Mapping(target = "songV2", ignore = true)
+    SongDTO toDTOWithoutSongV2(Song song);
+
     Song toEntity(SongDTO dto);
 
     SongDisplay toDisplay(Song song);
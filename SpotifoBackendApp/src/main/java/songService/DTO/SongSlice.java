@@ -0,0 +1,20 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SongSlice {
+
+    private List<SongDisplay> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+
+    public enum Type {
+        TRACK, ARTIST, ALBUM
+    }
+
+    private String text;
+    private Type type;
+    private int popularity;
+    // The most popular matching song, for track suggestions
+    private String isrc;
+}
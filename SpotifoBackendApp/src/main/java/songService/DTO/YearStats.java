@@ -0,0 +1,20 @@
+package songservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class YearStats {
+
+    private int year;
+    private long tracks;
+    private Double explicitRatio;
+    private Map<String, Double> averageFeatures;
+}
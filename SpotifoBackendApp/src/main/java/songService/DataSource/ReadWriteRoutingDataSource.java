@@ -0,0 +1,83 @@
+package songservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas, round robin, and everything else (writes, and work
+ * outside a transaction) to the primary. The decision reads the transaction's read-only flag, which
+ * is only set once the transaction has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that defers fetching the
+ * real connection to the first statement. Closing it closes the pools it routes to.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final String PRIMARY = "primary";
+    private final List<String> replicas = new ArrayList<>();
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter writes;
+    private final Counter stickyReads;
+    private final Counter replicaReads;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, ReadYourWrites readYourWrites,
+                                      MeterRegistry registry) {
+        this.readYourWrites = readYourWrites;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            String key = "replica-" + (i + 1);
+            replicas.add(key);
+            targets.put(key, replicaDataSources.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.writes = counter(registry, PRIMARY, "write");
+        this.stickyReads = counter(registry, PRIMARY, "read-your-writes");
+        this.replicaReads = counter(registry, "replica", "read");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        if (readYourWrites.active()) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource target : new LinkedHashSet<>(getResolvedDataSources().values())) {
+            if (target instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("spotifo.datasource.connections")
+                .description("Physical connections handed out by the read/write router")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
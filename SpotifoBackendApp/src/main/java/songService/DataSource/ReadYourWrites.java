@@ -0,0 +1,47 @@
+package songservice.datasource;
+
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import songservice.catalog.SongsCreatedEvent;
+import songservice.catalog.SongsUpdatedEvent;
+
+import java.time.Duration;
+
+/**
+ * Keeps read-only transactions on the primary for a while after every committed write, so a client
+ * that just created a song reads it back even while the replicas are still catching up. The window
+ * is process-wide rather than per client: it errs towards the primary, which is always current.
+ */
+public class ReadYourWrites {
+
+    private final long windowNanos;
+    private volatile long lastWrite;
+    private volatile boolean written;
+
+    public ReadYourWrites(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public boolean active() {
+        return windowNanos > 0 && written && System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsCreated(SongsCreatedEvent event) {
+        if (!event.songs().isEmpty()) {
+            recordWrite();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsUpdated(SongsUpdatedEvent event) {
+        if (!event.isrcs().isEmpty()) {
+            recordWrite();
+        }
+    }
+
+    private void recordWrite() {
+        lastWrite = System.nanoTime();
+        written = true;
+    }
+}
@@ -0,0 +1,114 @@
+package songservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Numeric side table of {@link SongV2}: the cross-platform counts that songs2024 stores as text such
+ * as "1,234,567", parsed once so they can be sorted and range-filtered by the database.
+ */
+@Data
+@Entity
+@Table(name = "song_metrics", indexes = {
+        @Index(name = "idx_song_metrics_reach", columnList = "total_reach"),
+        @Index(name = "idx_song_metrics_spotify", columnList = "spotify_streams"),
+        @Index(name = "idx_song_metrics_youtube", columnList = "youtube_views"),
+        @Index(name = "idx_song_metrics_tiktok", columnList = "tiktok_views"),
+        @Index(name = "idx_song_metrics_shazam", columnList = "shazam_counts")
+})
+public class SongMetrics {
+
+    @Id
+    @Column(name = "isrc")
+    private String isrc;
+
+    @Column(name = "spotify_streams")
+    private Long spotifyStreams;
+
+    @Column(name = "spotify_playlist_reach")
+    private Long spotifyPlaylistReach;
+
+    @Column(name = "youtube_views")
+    private Long youtubeViews;
+
+    @Column(name = "youtube_likes")
+    private Long youtubeLikes;
+
+    @Column(name = "tiktok_posts")
+    private Long tiktokPosts;
+
+    @Column(name = "tiktok_likes")
+    private Long tiktokLikes;
+
+    @Column(name = "tiktok_views")
+    private Long tiktokViews;
+
+    @Column(name = "airplay_spins")
+    private Long airplaySpins;
+
+    @Column(name = "siriusxm_spins")
+    private Long siriusxmSpins;
+
+    @Column(name = "pandora_streams")
+    private Long pandoraStreams;
+
+    @Column(name = "soundcloud_streams")
+    private Long soundcloudStreams;
+
+    @Column(name = "shazam_counts")
+    private Long shazamCounts;
+
+    /**
+     * Spotify and Pandora streams, YouTube and TikTok views and SoundCloud streams combined.
+     */
+    @Column(name = "total_reach")
+    private Long totalReach;
+
+    public static SongMetrics of(SongV2 song) {
+        SongMetrics metrics = new SongMetrics();
+        metrics.setIsrc(song.getIsrc());
+        metrics.setSpotifyStreams(parseCount(song.getSpotifyStreams()));
+        metrics.setSpotifyPlaylistReach(parseCount(song.getSpotifyPlaylistReach()));
+        metrics.setYoutubeViews(parseCount(song.getYoutubeViews()));
+        metrics.setYoutubeLikes(parseCount(song.getYoutubeLikes()));
+        metrics.setTiktokPosts(parseCount(song.getTiktokPosts()));
+        metrics.setTiktokLikes(parseCount(song.getTiktokLikes()));
+        metrics.setTiktokViews(parseCount(song.getTiktokViews()));
+        metrics.setAirplaySpins(parseCount(song.getAirplaySpins()));
+        metrics.setSiriusxmSpins(parseCount(song.getSiriusxmSpins()));
+        metrics.setPandoraStreams(parseCount(song.getPandoraStreams()));
+        metrics.setSoundcloudStreams(parseCount(song.getSoundcloudStreams()));
+        metrics.setShazamCounts(parseCount(song.getShazamCounts()));
+        metrics.setTotalReach(sum(metrics.getSpotifyStreams(), metrics.getPandoraStreams(), metrics.getYoutubeViews(),
+                metrics.getTiktokViews(), metrics.getSoundcloudStreams()));
+        return metrics;
+    }
+
+    /**
+     * Parses counts like "1,234,567"; blank or malformed values are {@code null}.
+     */
+    public static Long parseCount(String value) {
+        if (value == null) {
+            return null;
+        }
+        String digits = value.replace(",", "").trim();
+        if (digits.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(digits);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long sum(Long... counts) {
+        long total = 0;
+        for (Long count : counts) {
+            if (count != null) {
+                total += count;
+            }
+        }
+        return total;
+    }
+}
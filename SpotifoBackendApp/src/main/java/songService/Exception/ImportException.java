@@ -0,0 +1,7 @@
+package songservice.exception;
+
+public class ImportException extends RuntimeException {
+    public ImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
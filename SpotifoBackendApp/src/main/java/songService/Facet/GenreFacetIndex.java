@@ -0,0 +1,227 @@
+package songservice.facet;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import songservice.catalog.CatalogIndex;
+import songservice.dto.NamedCount;
+import songservice.entity.Song;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of song ordinals per genre, release year and popularity value. A song's genres
+ * are the union of its artist and album genres, trimmed and lower-cased as in the statistics. A
+ * query is a handful of bitmap unions and intersections; facet counts are intersection
+ * cardinalities, and a page in popularity order walks the popularity bitmaps from 100 down, so
+ * neither needs to look at individual songs beyond the ones returned.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spotifo.facets", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GenreFacetIndex implements CatalogIndex {
+
+    private static final int MAX_POPULARITY = 100;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> genreIds = new HashMap<>();
+    private final List<String> genreNames = new ArrayList<>();
+    private final List<RoaringBitmap> genres = new ArrayList<>();
+    private final Map<Integer, RoaringBitmap> years = new TreeMap<>(Comparator.reverseOrder());
+    private final RoaringBitmap[] popularity = new RoaringBitmap[MAX_POPULARITY + 1];
+    private final RoaringBitmap unknownPopularity = new RoaringBitmap();
+    private final RoaringBitmap all = new RoaringBitmap();
+
+    public GenreFacetIndex() {
+        for (int value = 0; value <= MAX_POPULARITY; value++) {
+            popularity[value] = new RoaringBitmap();
+        }
+    }
+
+    @Override
+    public void add(int ordinal, Song song) {
+        lock.writeLock().lock();
+        try {
+            addGenres(ordinal, song.getArtistGenres());
+            addGenres(ordinal, song.getAlbumGenres());
+            Integer year = releaseYear(song.getAlbumReleaseDate());
+            if (year != null) {
+                years.computeIfAbsent(year, y -> new RoaringBitmap()).add(ordinal);
+            }
+            Integer value = song.getPopularity();
+            if (value == null) {
+                unknownPopularity.add(ordinal);
+            } else {
+                popularity[Math.clamp(value, 0, MAX_POPULARITY)].add(ordinal);
+            }
+            all.add(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Songs matching every active filter, most popular first (ties in catalog order, songs without a
+     * popularity last), with genre and year counts. With any-of genres the genre counts ignore the
+     * genre filter itself, so the other genres stay selectable; with all-of they count within the
+     * result, narrowing it further. Year counts always ignore the year filter.
+     */
+    public Result query(Query query) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = all;
+            if (query.minPopularity() != null) {
+                base = RoaringBitmap.and(base, atLeast(query.minPopularity()));
+            }
+            RoaringBitmap genreMatch = genreMatch(query.genres(), query.allGenres());
+            RoaringBitmap withoutYear = genreMatch == null ? base : RoaringBitmap.and(base, genreMatch);
+            RoaringBitmap withoutGenres = base;
+            RoaringBitmap result = withoutYear;
+            if (query.releaseYear() != null) {
+                RoaringBitmap year = years.getOrDefault(query.releaseYear(), new RoaringBitmap());
+                withoutGenres = RoaringBitmap.and(base, year);
+                result = RoaringBitmap.and(withoutYear, year);
+            }
+            return new Result(page(result, query.offset(), query.limit()), result.getLongCardinality(),
+                    genreCounts(query.allGenres() ? result : withoutGenres, query.facets()),
+                    yearCounts(withoutYear));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addGenres(int ordinal, String value) {
+        if (value == null) {
+            return;
+        }
+        for (String genre : value.split(",")) {
+            String name = normalize(genre);
+            if (name.isEmpty()) {
+                continue;
+            }
+            Integer id = genreIds.get(name);
+            if (id == null) {
+                id = genres.size();
+                genreIds.put(name, id);
+                genreNames.add(name);
+                genres.add(new RoaringBitmap());
+            }
+            genres.get(id).add(ordinal);
+        }
+    }
+
+    /**
+     * @return the songs having any (or all) of the genres, or {@code null} when no genre was asked for
+     */
+    private RoaringBitmap genreMatch(List<String> names, boolean allGenres) {
+        if (names.isEmpty()) {
+            return null;
+        }
+        List<RoaringBitmap> selected = new ArrayList<>(names.size());
+        for (String name : names) {
+            Integer id = genreIds.get(normalize(name));
+            if (id != null) {
+                selected.add(genres.get(id));
+            } else if (allGenres) {
+                return new RoaringBitmap();
+            }
+        }
+        if (selected.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        return allGenres
+                ? FastAggregation.and(selected.toArray(RoaringBitmap[]::new))
+                : FastAggregation.or(selected.toArray(RoaringBitmap[]::new));
+    }
+
+    private RoaringBitmap atLeast(int minPopularity) {
+        int from = Math.clamp(minPopularity, 0, MAX_POPULARITY + 1);
+        RoaringBitmap[] buckets = new RoaringBitmap[MAX_POPULARITY + 1 - from];
+        System.arraycopy(popularity, from, buckets, 0, buckets.length);
+        return FastAggregation.or(buckets);
+    }
+
+    private int[] page(RoaringBitmap result, long offset, int limit) {
+        int[] ordinals = new int[(int) Math.max(0, Math.min(limit, result.getLongCardinality() - offset))];
+        int filled = 0;
+        long skip = offset;
+        for (int value = MAX_POPULARITY; value >= -1 && filled < ordinals.length; value--) {
+            RoaringBitmap bucket = value < 0 ? unknownPopularity : popularity[value];
+            long matching = RoaringBitmap.andCardinality(result, bucket);
+            if (skip >= matching) {
+                skip -= matching;
+                continue;
+            }
+            IntIterator songs = RoaringBitmap.and(result, bucket).getIntIterator();
+            for (; skip > 0; skip--) {
+                songs.next();
+            }
+            while (songs.hasNext() && filled < ordinals.length) {
+                ordinals[filled++] = songs.next();
+            }
+        }
+        return ordinals;
+    }
+
+    private List<NamedCount> genreCounts(RoaringBitmap within, int top) {
+        List<NamedCount> counts = new ArrayList<>();
+        for (int id = 0; id < genres.size(); id++) {
+            long count = RoaringBitmap.andCardinality(within, genres.get(id));
+            if (count > 0) {
+                counts.add(new NamedCount(genreNames.get(id), count));
+            }
+        }
+        counts.sort(Comparator.comparingLong(NamedCount::getCount).reversed().thenComparing(NamedCount::getName));
+        return counts.size() > top ? List.copyOf(counts.subList(0, top)) : counts;
+    }
+
+    private List<NamedCount> yearCounts(RoaringBitmap within) {
+        List<NamedCount> counts = new ArrayList<>();
+        years.forEach((year, songs) -> {
+            long count = RoaringBitmap.andCardinality(within, songs);
+            if (count > 0) {
+                counts.add(new NamedCount(String.valueOf(year), count));
+            }
+        });
+        return counts;
+    }
+
+    private static String normalize(String genre) {
+        return genre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Integer releaseYear(String releaseDate) {
+        if (releaseDate == null || releaseDate.length() < 4) {
+            return null;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (!Character.isDigit(releaseDate.charAt(i))) {
+                return null;
+            }
+        }
+        return Integer.parseInt(releaseDate.substring(0, 4));
+    }
+
+    /**
+     * @param genres genre names, matched case-insensitively; empty for no genre filter
+     * @param allGenres whether a song needs every genre rather than any of them
+     * @param releaseYear four-digit year, or {@code null}
+     * @param minPopularity lowest popularity, or {@code null} to include songs without one
+     * @param facets most genres to count
+     */
+    public record Query(List<String> genres, boolean allGenres, Integer releaseYear, Integer minPopularity,
+                        long offset, int limit, int facets) {
+    }
+
+    public record Result(int[] ordinals, long total, List<NamedCount> genres, List<NamedCount> years) {
+    }
+}
@@ -0,0 +1,141 @@
+package songservice.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader over a memory-mapped file. The file is mapped in fixed windows, fields
+ * are decoded straight from the mapped bytes, and {@link #position()} gives the byte offset after the
+ * last record so an import can resume from it.
+ */
+public final class CsvReader implements Closeable {
+
+    private static final long WINDOW = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private byte[] field = new byte[256];
+    private int fieldLength;
+
+    public CsvReader(Path path) throws IOException {
+        this(path, WINDOW);
+    }
+
+    CsvReader(Path path, long windowSize) throws IOException {
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        map(0);
+        if (size >= 3 && byteAt(0) == (byte) 0xEF && byteAt(1) == (byte) 0xBB && byteAt(2) == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public void seek(long offset) throws IOException {
+        position = offset;
+        map(offset);
+    }
+
+    /**
+     * @return the next record, or {@code null} at the end of the file
+     */
+    public String[] readRecord() throws IOException {
+        while (position < size && (peek() == '\n' || peek() == '\r')) {
+            position++;
+        }
+        if (position >= size) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        while (true) {
+            fieldLength = 0;
+            if (position < size && peek() == '"') {
+                position++;
+                while (position < size) {
+                    byte b = next();
+                    if (b == '"') {
+                        if (position < size && peek() == '"') {
+                            position++;
+                        } else {
+                            break;
+                        }
+                    }
+                    append(b);
+                }
+                while (position < size && peek() != ',' && peek() != '\n' && peek() != '\r') {
+                    position++;
+                }
+            } else {
+                while (position < size && peek() != ',' && peek() != '\n' && peek() != '\r') {
+                    append(next());
+                }
+            }
+            fields.add(new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+            if (position < size && peek() == ',') {
+                position++;
+                continue;
+            }
+            if (position < size && peek() == '\r') {
+                position++;
+            }
+            if (position < size && peek() == '\n') {
+                position++;
+            }
+            return fields.toArray(String[]::new);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private byte peek() throws IOException {
+        return byteAt(position);
+    }
+
+    private byte byteAt(long offset) throws IOException {
+        if (offset < windowStart || offset - windowStart >= window.limit()) {
+            map(offset);
+        }
+        return window.get((int) (offset - windowStart));
+    }
+
+    private byte next() throws IOException {
+        byte b = peek();
+        position++;
+        return b;
+    }
+
+    private void append(byte b) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, fieldLength * 2);
+        }
+        field[fieldLength++] = b;
+    }
+
+    private void map(long offset) throws IOException {
+        windowStart = offset;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(windowSize, Math.max(0, size - offset)));
+    }
+}
@@ -0,0 +1,66 @@
+package songservice.importer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * RFC 4180 writer, the counterpart of {@link CsvReader}: fields containing a comma, quote or line
+ * break are quoted with inner quotes doubled, {@code null} becomes an empty field and records end
+ * with CRLF.
+ */
+public final class CsvWriter {
+
+    private final Writer out;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeRecord(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(values.get(i));
+        }
+        out.write("\r\n");
+    }
+
+    public void writeRecord(Object[] first, Object[] second) throws IOException {
+        for (int i = 0; i < first.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(first[i]);
+        }
+        for (Object value : second) {
+            out.write(',');
+            writeField(value);
+        }
+        out.write("\r\n");
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
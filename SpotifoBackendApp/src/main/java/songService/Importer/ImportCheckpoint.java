@@ -0,0 +1,50 @@
+package songservice.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Durable progress of one import: the byte offset after the last committed row, plus the size and
+ * modification time of the file it belongs to so a changed file starts over.
+ */
+public record ImportCheckpoint(long fileSize, long lastModified, long offset, long rows) {
+
+    public static ImportCheckpoint read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return new ImportCheckpoint(Long.parseLong(properties.getProperty("fileSize")),
+                Long.parseLong(properties.getProperty("lastModified")),
+                Long.parseLong(properties.getProperty("offset")),
+                Long.parseLong(properties.getProperty("rows")));
+    }
+
+    public boolean matches(long size, long modified) {
+        return fileSize == size && lastModified == modified;
+    }
+
+    /**
+     * Writes through a temporary file and an atomic move, so a crash never leaves a torn checkpoint.
+     */
+    public void write(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("fileSize", Long.toString(fileSize));
+        properties.setProperty("lastModified", Long.toString(lastModified));
+        properties.setProperty("offset", Long.toString(offset));
+        properties.setProperty("rows", Long.toString(rows));
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            properties.store(writer, null);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,242 @@
+package songservice.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import songservice.exception.ErrorResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Adaptive concurrency limits in front of {@link songservice.controller.SongController}, one
+ * {@link GradientLimit} per endpoint class: {@code search} for the filtered, sorted, ranked and
+ * faceted queries, {@code lookup} for point lookups and the popularity pages. A request over its
+ * class's limit is answered with 503 and {@code Retry-After} at once instead of queueing for a
+ * connection. Search is shed first: while lookup latency is inflating, new searches are turned away
+ * even under their own limit and every congested lookup backs the search limit off, so the cheap
+ * requests get the database back rather than losing their own limit to it. Other endpoints
+ * (writes, imports) are not limited here; exports have their own {@link ExportLimit}.
+ * <p>
+ * Only traffic the service accepted as ready is limited and sampled: the requests {@code StartupWarmup}
+ * replays before readiness run cold and one at a time, and would teach the limits a baseline latency
+ * real traffic never sees. A {@code 304 Not Modified} is answered from the ETag alone, so it releases
+ * its permit without a latency sample that would hide queueing behind the database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spotifo.limits", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    private static final PathPatternParser PATTERNS = PathPatternParser.defaultInstance;
+
+    private final ObjectMapper objectMapper;
+    private final String retryAfter;
+    private final EndpointClass search;
+    private final EndpointClass lookup;
+    private final List<Route> routes;
+    private volatile boolean ready;
+
+    @Autowired
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper, MeterRegistry registry,
+                                  @Value("${spotifo.limits.retry-after:1s}") Duration retryAfter,
+                                  @Value("${spotifo.limits.search.initial-limit:10}") int searchInitial,
+                                  @Value("${spotifo.limits.search.min-limit:1}") int searchMin,
+                                  @Value("${spotifo.limits.search.max-limit:100}") int searchMax,
+                                  @Value("${spotifo.limits.lookup.initial-limit:50}") int lookupInitial,
+                                  @Value("${spotifo.limits.lookup.min-limit:5}") int lookupMin,
+                                  @Value("${spotifo.limits.lookup.max-limit:500}") int lookupMax) {
+        this.objectMapper = objectMapper;
+        this.retryAfter = Long.toString(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+        this.search = new EndpointClass("search", new GradientLimit(searchInitial, searchMin, searchMax), registry);
+        this.lookup = new EndpointClass("lookup", new GradientLimit(lookupInitial, lookupMin, lookupMax), registry);
+        // First match wins, so the literal /song/... paths come before /song/{isrc}
+        this.routes = List.of(
+                new Route(HttpMethod.GET, "/song", search),
+                new Route(HttpMethod.GET, "/song/search", search),
+                new Route(HttpMethod.GET, "/song/faceted", search),
+                new Route(HttpMethod.GET, "/song/{isrc}/similar", search),
+                new Route(HttpMethod.GET, "/song/{isrc}", lookup),
+                new Route(HttpMethod.GET, "/songs", lookup),
+                new Route(HttpMethod.POST, "/songs/lookup", lookup));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpoint = ready ? classify(request) : null;
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (endpoint == search && lookup.limit.congested()) {
+            reject(endpoint, endpoint.shedByPriority, response);
+            return;
+        }
+        if (!endpoint.limit.tryAcquire()) {
+            reject(endpoint, endpoint.shedByLimit, response);
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release(endpoint, start, released, response));
+            } else {
+                release(endpoint, start, released, response, failed);
+            }
+        }
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            ready = true;
+        }
+    }
+
+    private EndpointClass classify(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Route route : routes) {
+            if (route.method().matches(request.getMethod()) && route.pattern().matches(path)) {
+                return route.endpoint();
+            }
+        }
+        return null;
+    }
+
+    private void reject(EndpointClass endpoint, Counter shed, HttpServletResponse response) throws IOException {
+        shed.increment();
+        logger.debug("Shedding {} request at limit {} with {} in flight", endpoint.name, endpoint.limit.limit(), endpoint.limit.inflight());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                "Too many concurrent " + endpoint.name + " requests, please retry shortly",
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                LocalDateTime.now()));
+    }
+
+    private void release(EndpointClass endpoint, long start, AtomicBoolean released, HttpServletResponse response, boolean failed) {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        if (!failed && response.getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+            endpoint.limit.ignore();
+        } else {
+            endpoint.limit.release(System.nanoTime() - start, failed || response.getStatus() >= 500);
+            if (endpoint == lookup && lookup.limit.congested()) {
+                search.limit.backOff();
+            }
+        }
+    }
+
+    /**
+     * Releases an async request's permit once the response is complete rather than when the
+     * original request thread returns.
+     */
+    private final class Release implements AsyncListener {
+
+        private final EndpointClass endpoint;
+        private final long start;
+        private final AtomicBoolean released;
+        private final HttpServletResponse response;
+
+        private Release(EndpointClass endpoint, long start, AtomicBoolean released, HttpServletResponse response) {
+            this.endpoint = endpoint;
+            this.start = start;
+            this.released = released;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(endpoint, start, released, response, false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(endpoint, start, released, response, true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(endpoint, start, released, response, true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private record Route(HttpMethod method, PathPattern pattern, EndpointClass endpoint) {
+
+        Route(HttpMethod method, String pattern, EndpointClass endpoint) {
+            this(method, PATTERNS.parse(pattern), endpoint);
+        }
+    }
+
+    private static final class EndpointClass {
+
+        private final String name;
+        private final GradientLimit limit;
+        private final Counter shedByLimit;
+        private final Counter shedByPriority;
+
+        private EndpointClass(String name, GradientLimit limit, MeterRegistry registry) {
+            this.name = name;
+            this.limit = limit;
+            Gauge.builder("spotifo.limit.limit", limit, GradientLimit::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("endpoint", name)
+                    .register(registry);
+            Gauge.builder("spotifo.limit.inflight", limit, GradientLimit::inflight)
+                    .description("Requests currently admitted by the concurrency limit")
+                    .tag("endpoint", name)
+                    .register(registry);
+            this.shedByLimit = shed(registry, name, "limit");
+            this.shedByPriority = shed(registry, name, "priority");
+        }
+
+        private static Counter shed(MeterRegistry registry, String endpoint, String reason) {
+            return Counter.builder("spotifo.limit.shed")
+                    .description("Requests rejected with 503: over the limit, or search while lookups are congested")
+                    .tag("endpoint", endpoint)
+                    .tag("reason", reason)
+                    .register(registry);
+        }
+    }
+}
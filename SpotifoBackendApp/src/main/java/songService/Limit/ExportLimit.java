@@ -0,0 +1,57 @@
+package songservice.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import songservice.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of {@code GET /songs/export} downloads running at once. An export holds a database
+ * connection and a {@link songservice.bulkhead.DatabaseBulkhead} permit for as long as the client
+ * takes to read it, so without a cap a few slow downloads could take the whole pool from every other
+ * endpoint. An export over the cap is answered with 503 and {@code Retry-After} before anything is
+ * streamed.
+ */
+@Component
+public class ExportLimit {
+
+    private final Semaphore permits;
+    private final Duration retryAfter;
+    private final Counter rejected;
+
+    @Autowired
+    public ExportLimit(MeterRegistry registry,
+                       @Value("${spotifo.export.max-concurrent:2}") int maxConcurrent,
+                       @Value("${spotifo.export.retry-after:30s}") Duration retryAfter) {
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.retryAfter = retryAfter;
+        Gauge.builder("spotifo.export.available", permits, Semaphore::availablePermits)
+                .description("Exports that may still start before further ones are rejected")
+                .register(registry);
+        this.rejected = Counter.builder("spotifo.export.rejected")
+                .description("Exports rejected with 503 because max-concurrent were already running")
+                .register(registry);
+    }
+
+    /**
+     * Takes a permit that {@link #release} must return once the export has finished, however it ends.
+     *
+     * @throws ServiceUnavailableException if max-concurrent exports are already running
+     */
+    public void acquire() {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many exports are running, please retry later", retryAfter);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,102 @@
+package songservice.limit;
+
+/**
+ * Adaptive concurrency limit in the style of Netflix concurrency-limits' Gradient2. A long-term
+ * average of request latency stands for the latency without queueing; when the short-term average
+ * rises above it by more than the tolerance, requests are queueing somewhere downstream and the limit
+ * shrinks in proportion (by at most half per step), otherwise it grows by a queue allowance of
+ * {@code sqrt(limit)}. Changes are smoothed, and the limit only moves while at least half of it is
+ * in use: below that the service is app-limited and its latency says nothing about the limit. A
+ * dropped request (a server error such as an exhausted database bulkhead) backs the limit off
+ * multiplicatively right away.
+ */
+public final class GradientLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+    private static final double LONG_WINDOW = 2.0 / (600 + 1);
+    private static final double SHORT_WINDOW = 2.0 / (10 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private double longRtt;
+    private double shortRtt;
+    private double gradient = 1.0;
+    private int inflight;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return whether the request may proceed; if so, {@link #release} must follow exactly once
+     */
+    public synchronized boolean tryAcquire() {
+        if (inflight >= (int) limit) {
+            return false;
+        }
+        inflight++;
+        return true;
+    }
+
+    public synchronized void release(long rttNanos, boolean dropped) {
+        int used = inflight--;
+        if (dropped) {
+            backOff();
+            return;
+        }
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_WINDOW;
+        longRtt += (rttNanos - longRtt) * LONG_WINDOW;
+        // After a sustained rise the long-term average would otherwise take ages to accept it
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+        gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        if (used < limit / 2) {
+            return;
+        }
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    /**
+     * Releases a request without taking its latency as a sample, for responses that say nothing
+     * about the downstream (answered from a cache or validator before reaching it).
+     */
+    public synchronized void ignore() {
+        inflight--;
+    }
+
+    /**
+     * Cuts the limit multiplicatively, as for a dropped request; used to make room for a more
+     * important endpoint class sharing the same downstream.
+     */
+    public synchronized void backOff() {
+        limit = Math.max(minLimit, limit * BACKOFF);
+    }
+
+    /**
+     * Requests are in flight and latency is above what the tolerance allows, so the limit is being
+     * cut; an idle limit is never congested, whatever its last requests saw.
+     */
+    public synchronized boolean congested() {
+        return inflight > 0 && gradient < 1.0;
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inflight() {
+        return inflight;
+    }
+}
@@ -0,0 +1,45 @@
+package songservice.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON converter with a timer around writing each response body, tagged by the top-level type
+ * (a {@code PageImpl}, a {@code SongDTO}, ...). The response buffer is flushed as it fills, so for
+ * large bodies the time includes writing to the socket.
+ */
+public class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    private final MeterRegistry registry;
+    private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedJacksonConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+        super(objectMapper);
+        this.registry = registry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Timer timer = timers.computeIfAbsent(object.getClass(), objectClass -> Timer.builder("spotifo.serialization")
+                .description("Time to write a response body as JSON")
+                .tag("type", objectClass.getSimpleName())
+                .register(registry));
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package songservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate statistics that also feed two things the aggregate {@code hibernate.*} meters cannot
+ * show: the time spent in count queries (the second query behind every paged endpoint) apart from
+ * row queries, and lazy proxy initialisations per entity, which is how an unexpected
+ * {@code Song.songV2} load shows up. Hibernate reports query times in whole milliseconds.
+ */
+public class TimedStatistics extends StatisticsImpl {
+
+    private final MeterRegistry registry;
+    private final Timer countQueries;
+    private final Timer rowQueries;
+    private final Map<String, Counter> lazyLoads = new ConcurrentHashMap<>();
+
+    public TimedStatistics(SessionFactoryImplementor sessionFactory, MeterRegistry registry) {
+        super(sessionFactory);
+        this.registry = registry;
+        this.countQueries = queryTimer(registry, "count");
+        this.rowQueries = queryTimer(registry, "rows");
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        (isCount(hql) ? countQueries : rowQueries).record(time, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        super.fetchEntity(entityName);
+        lazyLoads.computeIfAbsent(entityName, name -> Counter.builder("spotifo.hibernate.lazy.loads")
+                .description("Lazy associations initialised on access")
+                .tag("entity", name.substring(name.lastIndexOf('.') + 1))
+                .register(registry)).increment();
+    }
+
+    private static Timer queryTimer(MeterRegistry registry, String kind) {
+        return Timer.builder("spotifo.hibernate.query")
+                .description("HQL query execution time, count queries apart from row queries")
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    private static boolean isCount(String hql) {
+        return hql != null && hql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select count(");
+    }
+}
@@ -0,0 +1,112 @@
+package songservice.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Table;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column layout of a JPA entity table for plain JDBC access, read once from the {@link Column}
+ * annotations so batch writers stay in step with the entity mappings.
+ */
+public final class JdbcTableMapping<T> {
+
+    private final Class<T> entityType;
+    private final String table;
+    private final List<String> columns = new ArrayList<>();
+    private final List<Field> fields = new ArrayList<>();
+
+    private JdbcTableMapping(Class<T> entityType) {
+        this.entityType = entityType;
+        this.table = entityType.getAnnotation(Table.class).name();
+        for (Field field : entityType.getDeclaredFields()) {
+            Column column = field.getAnnotation(Column.class);
+            if (column != null) {
+                field.setAccessible(true);
+                columns.add(column.name());
+                fields.add(field);
+            }
+        }
+    }
+
+    public static <T> JdbcTableMapping<T> of(Class<T> entityType) {
+        return new JdbcTableMapping<>(entityType);
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    public Class<?> columnType(int index) {
+        return fields.get(index).getType();
+    }
+
+    /**
+     * @return the position of the named column, or -1 when the entity doesn't map it
+     */
+    public int indexOf(String column) {
+        return columns.indexOf(column);
+    }
+
+    /**
+     * Converts a raw text value (as found in the CSV exports) to the column's Java type. Blank or
+     * unparseable numbers become {@code null}; thousands separators are ignored.
+     */
+    public Object convert(int index, String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        Class<?> type = columnType(index);
+        if (type == String.class) {
+            return raw;
+        }
+        String number = raw.replace(",", "").trim();
+        try {
+            if (type == Integer.class) {
+                return Integer.valueOf(number);
+            }
+            if (type == Long.class) {
+                return Long.valueOf(number);
+            }
+            if (type == Double.class) {
+                return Double.valueOf(number);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        throw new IllegalStateException("Unsupported column type " + type);
+    }
+
+    /**
+     * Builds a detached entity from values in column order.
+     */
+    public T toEntity(Object[] values) {
+        try {
+            T entity = entityType.getDeclaredConstructor().newInstance();
+            for (int i = 0; i < values.length; i++) {
+                fields.get(i).set(entity, values[i]);
+            }
+            return entity;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Object[] values(T entity) {
+        Object[] values = new Object[fields.size()];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = fields.get(i).get(entity);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return values;
+    }
+}
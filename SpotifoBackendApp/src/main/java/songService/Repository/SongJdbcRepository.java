@@ -0,0 +1,96 @@
+package songservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import songservice.entity.Song;
+import songservice.entity.SongMetrics;
+import songservice.entity.SongV2;
+
+import java.sql.DatabaseMetaData;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based and batched JDBC access for bulk loads, bypassing the persistence context.
+ */
+@Repository
+public class SongJdbcRepository {
+
+    public static final JdbcTableMapping<Song> SONGS = JdbcTableMapping.of(Song.class);
+    public static final JdbcTableMapping<SongV2> SONGS_V2 = JdbcTableMapping.of(SongV2.class);
+    public static final JdbcTableMapping<SongMetrics> SONG_METRICS = JdbcTableMapping.of(SongMetrics.class);
+    private static final Pattern SIMPLE_IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private volatile IdentifierStyle identifierStyle;
+
+    @Autowired
+    public SongJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * @return the subset of the given ISRCs already stored in the table, found with a single IN query
+     */
+    public Set<String> findExistingIsrcs(JdbcTableMapping<?> mapping, Collection<String> isrcs) {
+        if (isrcs.isEmpty()) {
+            return Set.of();
+        }
+        String sql = "SELECT " + quote("ISRC") + " FROM " + quote(mapping.table()) + " WHERE " + quote("ISRC") + " IN (:isrcs)";
+        return new HashSet<>(namedJdbcTemplate.queryForList(sql, new MapSqlParameterSource("isrcs", isrcs), String.class));
+    }
+
+    /**
+     * Inserts all entities as one JDBC batch; MySQL rewrites it into multi-row INSERTs when the URL
+     * sets {@code rewriteBatchedStatements=true}.
+     */
+    public <T> void insertAll(JdbcTableMapping<T> mapping, List<T> entities) {
+        batchInsert(mapping, mapping.columns(), entities.stream().map(mapping::values).toList());
+    }
+
+    public void batchInsert(JdbcTableMapping<?> mapping, List<String> columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO " + quote(mapping.table())
+                + " (" + columns.stream().map(this::quote).collect(Collectors.joining(", ")) + ")"
+                + " VALUES (" + columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    /**
+     * Quotes every identifier, since plain names like {@code Key} are reserved words. Simple names are
+     * folded the way the database stores unquoted identifiers, which is how Hibernate created them.
+     */
+    private String quote(String identifier) {
+        IdentifierStyle style = identifierStyle;
+        if (style == null) {
+            style = jdbcTemplate.execute((ConnectionCallback<IdentifierStyle>) connection -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+                return new IdentifierStyle(metaData.getIdentifierQuoteString().trim(),
+                        metaData.storesUpperCaseIdentifiers(), metaData.storesLowerCaseIdentifiers());
+            });
+            identifierStyle = style;
+        }
+        String name = identifier;
+        if (SIMPLE_IDENTIFIER.matcher(identifier).matches()) {
+            name = style.upperCase() ? identifier.toUpperCase(Locale.ROOT)
+                    : style.lowerCase() ? identifier.toLowerCase(Locale.ROOT) : identifier;
+        }
+        return style.quote() + name + style.quote();
+    }
+
+    private record IdentifierStyle(String quote, boolean upperCase, boolean lowerCase) {
+    }
+}
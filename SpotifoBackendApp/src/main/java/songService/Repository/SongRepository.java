@@ -1,34 +1,105 @@
 package songservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import songservice.dto.SongDisplay;
 import songservice.entity.Song;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SongRepository extends JpaRepository<Song, String> {
+public interface SongRepository extends JpaRepository<Song, String>, SongRepositoryCustom {
 
     @Query("SELECT s FROM Song s WHERE s.isrc = :isrc")
     Optional<Song> findByisrc(String isrc);
 
-    @Query("SELECT s FROM Song s ORDER BY s.popularity DESC")
+    @Query("SELECT s FROM Song s ORDER BY s.popularity DESC, s.isrc")
     Page<Song> findAllSongsByPopularity(Pageable pageable);
 
-    @Query("SELECT s FROM Song s WHERE " +
-            "(:trackName IS NULL OR LOWER(s.trackName) LIKE LOWER(CONCAT('%', :trackName, '%'))) " +
+    String SONG_FILTER = "(:trackName IS NULL OR LOWER(s.trackName) LIKE LOWER(CONCAT('%', :trackName, '%'))) " +
             "AND (:artistNames IS NULL OR LOWER(s.artistNames) LIKE LOWER(CONCAT('%', :artistNames, '%'))) " +
             "AND (:albumName IS NULL OR LOWER(s.albumName) LIKE LOWER(CONCAT('%', :albumName, '%'))) " +
             "AND (:albumReleaseDate IS NULL OR LOWER(s.albumReleaseDate) LIKE LOWER(CONCAT(:albumReleaseDate, '%'))) " +
-            "AND s.popularity >= :minPopularity")
+            "AND s.popularity >= :minPopularity";
+
+    @Query("SELECT s FROM Song s WHERE " + SONG_FILTER)
     Page<Song> findSongs(Pageable pageable,
                          @Param("trackName") String trackName,
                          @Param("artistNames") String artistNames,
                          @Param("albumName") String albumName,
                          @Param("albumReleaseDate") String albumReleaseDate,
                          @Param("minPopularity") int minPopularity);
+
+    @Query(value = "SELECT new songservice.dto.SongDisplay(s.isrc, s.trackName, s.artistNames, s.artistUris, s.albumName, s.albumUri, s.albumImageUrl) " +
+            "FROM Song s ORDER BY s.popularity DESC, s.isrc",
+            countQuery = "SELECT COUNT(s) FROM Song s")
+    Page<SongDisplay> findAllSongDisplaysByPopularity(Pageable pageable);
+
+    @Query(value = "SELECT new songservice.dto.SongDisplay(s.isrc, s.trackName, s.artistNames, s.artistUris, s.albumName, s.albumUri, s.albumImageUrl) " +
+            "FROM Song s WHERE " + SONG_FILTER,
+            countQuery = "SELECT COUNT(s) FROM Song s WHERE " + SONG_FILTER)
+    Page<SongDisplay> findSongDisplays(Pageable pageable,
+                                       @Param("trackName") String trackName,
+                                       @Param("artistNames") String artistNames,
+                                       @Param("albumName") String albumName,
+                                       @Param("albumReleaseDate") String albumReleaseDate,
+                                       @Param("minPopularity") int minPopularity);
+
+    /**
+     * {@link #SONG_FILTER} plus bounds on the parsed cross-platform reach. The metrics are left-joined
+     * so that sorting by a metric (alias {@code m}) still lists songs that have none.
+     */
+    String METRICS_FILTER = SONG_FILTER +
+            " AND (:minReach IS NULL OR m.totalReach >= :minReach) AND (:maxReach IS NULL OR m.totalReach <= :maxReach)";
+
+    @Query(value = "SELECT s FROM Song s LEFT JOIN SongMetrics m ON m.isrc = s.isrc WHERE " + METRICS_FILTER,
+            countQuery = "SELECT COUNT(s) FROM Song s LEFT JOIN SongMetrics m ON m.isrc = s.isrc WHERE " + METRICS_FILTER)
+    Page<Song> findSongsWithMetrics(Pageable pageable,
+                                    @Param("trackName") String trackName,
+                                    @Param("artistNames") String artistNames,
+                                    @Param("albumName") String albumName,
+                                    @Param("albumReleaseDate") String albumReleaseDate,
+                                    @Param("minPopularity") int minPopularity,
+                                    @Param("minReach") Long minReach,
+                                    @Param("maxReach") Long maxReach);
+
+    @Query(value = "SELECT new songservice.dto.SongDisplay(s.isrc, s.trackName, s.artistNames, s.artistUris, s.albumName, s.albumUri, s.albumImageUrl) " +
+            "FROM Song s LEFT JOIN SongMetrics m ON m.isrc = s.isrc WHERE " + METRICS_FILTER,
+            countQuery = "SELECT COUNT(s) FROM Song s LEFT JOIN SongMetrics m ON m.isrc = s.isrc WHERE " + METRICS_FILTER)
+    Page<SongDisplay> findSongDisplaysWithMetrics(Pageable pageable,
+                                                  @Param("trackName") String trackName,
+                                                  @Param("artistNames") String artistNames,
+                                                  @Param("albumName") String albumName,
+                                                  @Param("albumReleaseDate") String albumReleaseDate,
+                                                  @Param("minPopularity") int minPopularity,
+                                                  @Param("minReach") Long minReach,
+                                                  @Param("maxReach") Long maxReach);
+
+    @Query("SELECT new songservice.dto.SongDisplay(s.isrc, s.trackName, s.artistNames, s.artistUris, s.albumName, s.albumUri, s.albumImageUrl) " +
+            "FROM Song s WHERE s.isrc IN :isrcs")
+    List<SongDisplay> findSongDisplaysByIsrcIn(@Param("isrcs") Collection<String> isrcs, Pageable pageable);
+
+    @Query("SELECT new songservice.dto.SongDisplay(s.isrc, s.trackName, s.artistNames, s.artistUris, s.albumName, s.albumUri, s.albumImageUrl) " +
+            "FROM Song s WHERE s.isrc IN :isrcs")
+    List<SongDisplay> findSongDisplaysByIsrcIn(@Param("isrcs") Collection<String> isrcs);
+
+    @Query("SELECT s FROM Song s LEFT JOIN FETCH s.songV2 WHERE s.isrc IN :isrcs")
+    List<Song> findSongsWithSongV2ByIsrcIn(@Param("isrcs") Collection<String> isrcs);
+
+    @Query("SELECT s FROM Song s WHERE s.isrc IN :isrcs")
+    List<Song> findSongsByIsrcIn(@Param("isrcs") Collection<String> isrcs, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s FROM Song s LEFT JOIN FETCH s.songV2")
+    Stream<Song> streamAll();
 }
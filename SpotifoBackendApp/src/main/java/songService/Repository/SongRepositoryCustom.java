@@ -0,0 +1,56 @@
+package songservice.repository;
+
+import songservice.dto.SongDisplay;
+import songservice.dto.SongFilter;
+import songservice.entity.Song;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface SongRepositoryCustom {
+
+    /**
+     * Inserts a new song directly; {@code save()} would first SELECT it because the ID is assigned.
+     */
+    void persist(Song song);
+
+    /**
+     * Keyset page: songs matching the filter ordered by {@code sortBy} then ISRC, strictly after the
+     * given position. A {@code null} {@code lastIsrc} starts from the beginning and a {@code null} filter
+     * matches every song. Nulls sort lowest.
+     */
+    List<Song> findSongsAfter(SongFilter filter, String sortBy, boolean ascending, String lastValue, String lastIsrc, int limit);
+
+    /**
+     * {@link #findSongsAfter} selecting only the {@link SongDisplay} columns and the sort key.
+     */
+    List<KeyedSongDisplay> findSongDisplaysAfter(SongFilter filter, String sortBy, boolean ascending,
+                                                 String lastValue, String lastIsrc, int limit);
+
+    /**
+     * Selects only the named attributes of one song, in order, followed by the named songs2024
+     * attributes and the songs2024 ISRC (null when the song has no songs2024 row). songs2024 is only
+     * joined when {@code songV2Attributes} is non-empty. Empty when the ISRC doesn't exist.
+     */
+    Optional<Object[]> findAttributes(String isrc, List<String> songAttributes, List<String> songV2Attributes);
+
+    /**
+     * Songs matching the filter in ISRC order as a read-only, forward-only stream fetched in batches,
+     * optionally with songs2024 joined in. A {@code null} filter matches every song. The stream must be
+     * consumed inside a transaction and closed.
+     */
+    Stream<Song> streamSongs(SongFilter filter, boolean fetchSongV2);
+
+    /**
+     * Every song with songs2024 joined in, streamed like {@link #streamSongs} but in the order of
+     * {@code GET /songs}: popularity descending with nulls last, ties broken by ISRC.
+     */
+    Stream<Song> streamSongsByPopularity();
+
+    /**
+     * A song's display columns and the value of the column it was sorted by.
+     */
+    record KeyedSongDisplay(SongDisplay song, Object sortKey) {
+    }
+}
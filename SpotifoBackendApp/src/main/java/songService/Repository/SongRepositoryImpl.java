@@ -0,0 +1,221 @@
+package songservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import org.hibernate.jpa.HibernateHints;
+import songservice.dto.SongDisplay;
+import songservice.dto.SongFilter;
+import songservice.entity.Song;
+import songservice.entity.SongV2;
+import songservice.exception.InvalidQueryException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Criteria-based queries that can't be expressed as a fixed JPQL string.
+ */
+public class SongRepositoryImpl implements SongRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void persist(Song song) {
+        entityManager.persist(song);
+    }
+
+    @Override
+    public List<Song> findSongsAfter(SongFilter filter, String sortBy, boolean ascending, String lastValue, String lastIsrc, int limit) {
+        CriteriaQuery<Song> query = entityManager.getCriteriaBuilder().createQuery(Song.class);
+        Root<Song> song = query.from(Song.class);
+        seekAfter(query, song, filter, sortBy, ascending, lastValue, lastIsrc);
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<KeyedSongDisplay> findSongDisplaysAfter(SongFilter filter, String sortBy, boolean ascending,
+                                                       String lastValue, String lastIsrc, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Song> song = query.from(Song.class);
+        Path<?> key = seekAfter(query, song, filter, sortBy, ascending, lastValue, lastIsrc);
+        query.multiselect(song.get("isrc"), song.get("trackName"), song.get("artistNames"), song.get("artistUris"),
+                song.get("albumName"), song.get("albumUri"), song.get("albumImageUrl"), key);
+        List<Object[]> rows = entityManager.createQuery(query).setMaxResults(limit).getResultList();
+        List<KeyedSongDisplay> displays = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            displays.add(new KeyedSongDisplay(new SongDisplay((String) row[0], (String) row[1], (String) row[2],
+                    (String) row[3], (String) row[4], (String) row[5], (String) row[6]), row[7]));
+        }
+        return displays;
+    }
+
+    /**
+     * Restricts the query to the filter and to rows after the seek position, and orders it by
+     * (sort key, ISRC).
+     *
+     * @return the sort key
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Path<Comparable> seekAfter(CriteriaQuery<?> query, Root<Song> song, SongFilter filter, String sortBy,
+                                       boolean ascending, String lastValue, String lastIsrc) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Path<Comparable> key = song.get(sortAttribute(sortBy));
+        Path<String> isrc = song.get("isrc");
+
+        List<Predicate> predicates = filterPredicates(cb, song, filter);
+        if (lastIsrc != null) {
+            predicates.add(sortBy.equals("isrc")
+                    ? (ascending ? cb.greaterThan(isrc, lastIsrc) : cb.lessThan(isrc, lastIsrc))
+                    : seek(cb, key, isrc, ascending, toKey(key.getJavaType(), lastValue), lastIsrc));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(ascending ? cb.asc(key) : cb.desc(key), ascending ? cb.asc(isrc) : cb.desc(isrc));
+        return key;
+    }
+
+    @Override
+    public Optional<Object[]> findAttributes(String isrc, List<String> songAttributes, List<String> songV2Attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Song> song = query.from(Song.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String attribute : songAttributes) {
+            selections.add(song.get(basicAttribute(Song.class, attribute)));
+        }
+        if (!songV2Attributes.isEmpty()) {
+            Join<Song, SongV2> songV2 = song.join("songV2", JoinType.LEFT);
+            for (String attribute : songV2Attributes) {
+                selections.add(songV2.get(basicAttribute(SongV2.class, attribute)));
+            }
+            selections.add(songV2.get("isrc"));
+        }
+        query.multiselect(selections).where(cb.equal(song.get("isrc"), isrc));
+        return entityManager.createQuery(query).getResultList().stream().findFirst();
+    }
+
+    @Override
+    public Stream<Song> streamSongs(SongFilter filter, boolean fetchSongV2) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Song> query = cb.createQuery(Song.class);
+        Root<Song> song = query.from(Song.class);
+        if (fetchSongV2) {
+            song.fetch("songV2", JoinType.LEFT);
+        }
+        query.where(filterPredicates(cb, song, filter).toArray(Predicate[]::new));
+        query.orderBy(cb.asc(song.get("isrc")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Song> streamSongsByPopularity() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Song> query = cb.createQuery(Song.class);
+        Root<Song> song = query.from(Song.class);
+        song.fetch("songV2", JoinType.LEFT);
+        query.orderBy(cb.desc(song.get("popularity")), cb.asc(song.get("isrc")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Rows strictly after (lastKey, lastIsrc) in (key, isrc) order, with nulls sorting lowest as they
+     * do by default in both MySQL and H2.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seek(CriteriaBuilder cb, Path<Comparable> key, Path<String> isrc, boolean ascending,
+                                  Comparable lastKey, String lastIsrc) {
+        if (ascending) {
+            if (lastKey == null) {
+                return cb.or(cb.and(cb.isNull(key), cb.greaterThan(isrc, lastIsrc)), cb.isNotNull(key));
+            }
+            return cb.or(cb.greaterThan(key, lastKey), cb.and(cb.equal(key, lastKey), cb.greaterThan(isrc, lastIsrc)));
+        }
+        if (lastKey == null) {
+            return cb.and(cb.isNull(key), cb.lessThan(isrc, lastIsrc));
+        }
+        return cb.or(cb.lessThan(key, lastKey), cb.and(cb.equal(key, lastKey), cb.lessThan(isrc, lastIsrc)), cb.isNull(key));
+    }
+
+    static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Song> song, SongFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter == null) {
+            return predicates;
+        }
+        contains(cb, predicates, song.get("trackName"), filter.trackName());
+        contains(cb, predicates, song.get("artistNames"), filter.artistName());
+        contains(cb, predicates, song.get("albumName"), filter.albumName());
+        if (filter.releaseYear() != null) {
+            predicates.add(cb.like(cb.lower(song.get("albumReleaseDate")), filter.releaseYear().toLowerCase(Locale.ROOT) + "%"));
+        }
+        predicates.add(cb.greaterThanOrEqualTo(song.get("popularity"), filter.minPopularity()));
+        return predicates;
+    }
+
+    private static void contains(CriteriaBuilder cb, List<Predicate> predicates, Expression<String> column, String value) {
+        if (value != null) {
+            predicates.add(cb.like(cb.lower(column), "%" + value.toLowerCase(Locale.ROOT) + "%"));
+        }
+    }
+
+    private String sortAttribute(String sortBy) {
+        try {
+            Attribute<? super Song, ?> attribute = entityManager.getMetamodel().entity(Song.class).getAttribute(sortBy);
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+                throw new InvalidQueryException("Can't sort by " + sortBy);
+            }
+            return attribute.getName();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryException("Unknown sort field: " + sortBy);
+        }
+    }
+
+    private String basicAttribute(Class<?> entity, String name) {
+        try {
+            Attribute<?, ?> attribute = entityManager.getMetamodel().entity(entity).getAttribute(name);
+            if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+                throw new InvalidQueryException("Can't select " + name);
+            }
+            return attribute.getName();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryException("Unknown field: " + name);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable toKey(Class<?> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == Double.class) {
+                return Double.valueOf(value);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new InvalidQueryException("Invalid cursor value: " + value);
+        }
+    }
+}
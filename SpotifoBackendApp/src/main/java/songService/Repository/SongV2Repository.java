@@ -0,0 +1,19 @@
+package songservice.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import songservice.entity.SongV2;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface SongV2Repository extends JpaRepository<SongV2, String> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT v FROM SongV2 v WHERE NOT EXISTS (SELECT m.isrc FROM SongMetrics m WHERE m.isrc = v.isrc)")
+    Stream<SongV2> streamWithoutMetrics();
+}
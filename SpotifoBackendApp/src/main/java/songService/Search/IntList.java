@@ -0,0 +1,53 @@
+package songservice.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints used for posting lists.
+ */
+final class IntList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int last() {
+        return size == 0 ? -1 : values[size - 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Intersects this (ascending) list with an ascending array.
+     */
+    int[] intersect(int[] other) {
+        int[] result = new int[Math.min(size, other.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.length) {
+            if (values[i] < other[j]) {
+                i++;
+            } else if (values[i] > other[j]) {
+                j++;
+            } else {
+                result[count++] = values[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
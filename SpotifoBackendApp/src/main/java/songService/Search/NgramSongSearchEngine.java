@@ -0,0 +1,178 @@
+package songservice.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import songservice.catalog.CatalogIndex;
+import songservice.catalog.SongCatalog;
+import songservice.dto.SongFilter;
+import songservice.entity.Song;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram posting-list index over track, artist, album and release date. Filters of three or more
+ * characters are narrowed by intersecting the posting lists of their trigrams, then every candidate
+ * is verified against the stored lower-cased value, so results match the {@code LIKE} query exactly
+ * (apart from accent folding done by the MySQL collation).
+ */
+@Component
+@ConditionalOnProperty(prefix = "spotifo.search", name = "engine", havingValue = "ngram")
+public class NgramSongSearchEngine implements SongSearchEngine, CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(NgramSongSearchEngine.class);
+    private static final int GRAM = 3;
+    private static final int TRACK = 0;
+    private static final int ARTIST = 1;
+    private static final int ALBUM = 2;
+    private static final int RELEASE = 3;
+
+    private final SongCatalog catalog;
+    private final int maxMatches;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final String[][] fields = new String[4][1024];
+    private int[] popularity = new int[1024];
+    private int size;
+
+    @Autowired
+    public NgramSongSearchEngine(SongCatalog catalog, @Value("${spotifo.search.max-matches:2000}") int maxMatches) {
+        this.catalog = catalog;
+        this.maxMatches = maxMatches;
+    }
+
+    @Override
+    public void add(int ordinal, Song song) {
+        lock.writeLock().lock();
+        try {
+            if (ordinal >= popularity.length) {
+                int capacity = Math.max(ordinal + 1, popularity.length * 2);
+                for (int field = 0; field < fields.length; field++) {
+                    fields[field] = Arrays.copyOf(fields[field], capacity);
+                }
+                popularity = Arrays.copyOf(popularity, capacity);
+            }
+            index(TRACK, ordinal, song.getTrackName());
+            index(ARTIST, ordinal, song.getArtistNames());
+            index(ALBUM, ordinal, song.getAlbumName());
+            index(RELEASE, ordinal, song.getAlbumReleaseDate());
+            popularity[ordinal] = song.getPopularity() == null ? Integer.MIN_VALUE : song.getPopularity();
+            size = Math.max(size, ordinal + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<List<String>> findIsrcs(SongFilter filter) {
+        if (!catalog.isLoaded()) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        String[] terms = {lower(filter.trackName()), lower(filter.artistName()), lower(filter.albumName()), lower(filter.releaseYear())};
+        lock.readLock().lock();
+        try {
+            int[] candidates = null;
+            for (int field = 0; field < terms.length; field++) {
+                candidates = narrow(candidates, field, terms[field]);
+                if (candidates != null && candidates.length == 0) {
+                    return Optional.of(List.of());
+                }
+            }
+            List<String> matches = new ArrayList<>();
+            int count = candidates == null ? size : candidates.length;
+            for (int i = 0; i < count; i++) {
+                int ordinal = candidates == null ? i : candidates[i];
+                if (matches(ordinal, terms, filter.minPopularity())) {
+                    if (matches.size() == maxMatches) {
+                        logger.debug("Filter {} matches more than {} songs, deferring to the database", filter, maxMatches);
+                        return Optional.empty();
+                    }
+                    matches.add(catalog.isrcOf(ordinal));
+                }
+            }
+            logger.debug("Trigram index matched {} songs in {} µs", matches.size(), (System.nanoTime() - start) / 1_000);
+            return Optional.of(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(int field, int ordinal, String value) {
+        String lower = lower(value);
+        fields[field][ordinal] = lower;
+        if (lower == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM <= lower.length(); i++) {
+            IntList posting = postings.computeIfAbsent(key(field, lower, i), k -> new IntList());
+            if (posting.last() != ordinal) {
+                posting.add(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Intersects the candidates with the posting lists of every trigram in the term, smallest first.
+     * Returns {@code null} (all songs) when the term is too short to narrow anything.
+     */
+    private int[] narrow(int[] candidates, int field, String term) {
+        if (term == null || term.length() < GRAM) {
+            return candidates;
+        }
+        List<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            IntList posting = postings.get(key(field, term, i));
+            if (posting == null) {
+                return new int[0];
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(IntList::size));
+        int[] result = candidates == null ? lists.get(0).toArray() : lists.get(0).intersect(candidates);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).intersect(result);
+        }
+        return result;
+    }
+
+    private boolean matches(int ordinal, String[] terms, int minPopularity) {
+        if (popularity[ordinal] < minPopularity) {
+            return false;
+        }
+        for (int field = 0; field < terms.length; field++) {
+            String term = terms[field];
+            if (term == null) {
+                continue;
+            }
+            String value = fields[field][ordinal];
+            if (value == null || !(field == RELEASE ? value.startsWith(term) : value.contains(term))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long key(int field, String value, int offset) {
+        return (long) field << 48
+                | (long) value.charAt(offset) << 32
+                | (long) value.charAt(offset + 1) << 16
+                | value.charAt(offset + 2);
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
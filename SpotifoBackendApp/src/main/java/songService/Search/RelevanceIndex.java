@@ -0,0 +1,541 @@
+package songservice.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import songservice.catalog.CatalogIndex;
+import songservice.entity.Song;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranked full-text search over track, artist, album and label. Each song is scored with BM25F (term
+ * frequencies weighted per field and normalized by field length) and the score is scaled up by
+ * popularity. Since that boost is fixed per song it is folded into each posting's impact, which keeps
+ * the score bounds below tight. A query term missing from the dictionary is replaced by the
+ * dictionary terms within one edit (two for long words), found by walking the {@link TermTrie}, at a
+ * discount per edit. The expansions of one query term act as a single term: a song scores only its
+ * best-matching expansion, and no expansion is weighted as rarer than the closest, most common one,
+ * so a rare near-miss can't outweigh the word that was meant.
+ * <p>
+ * Top-k retrieval uses block-max MaxScore. Each term knows the highest impact it can contribute,
+ * terms are ordered by that bound, and once the k-th best score exceeds the combined bound of the
+ * weakest terms those can no longer produce a hit on their own: their posting lists are only probed
+ * for songs the stronger terms matched. Posting lists also keep the highest impact of every block of
+ * {@value #BLOCK} entries, so runs of songs whose blocks together can't beat the k-th best are
+ * skipped without being scored. Posting lists are keyed by an internal document number rather than
+ * the catalog ordinal: once the catalog is loaded, documents are renumbered most popular first, so
+ * the best candidates are met first, the k-th best score rises early and the block maxima of the
+ * long, less popular tail fall below it.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spotifo.relevance", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RelevanceIndex implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelevanceIndex.class);
+    // track, artist, album, label
+    private static final float[] FIELD_WEIGHTS = {3f, 2f, 1f, 0.5f};
+    private static final int FIELDS = FIELD_WEIGHTS.length;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_QUERY_TERMS = 10;
+    private static final int MAX_EXPANSIONS = 8;
+    private static final float EDIT_DISCOUNT = 0.3f;
+    static final int BLOCK = 64;
+
+    private final float popularityWeight;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+    private final TermTrie trie = new TermTrie();
+    private final int[][] lengths = new int[FIELDS][1024];
+    private final long[] totalLengths = new long[FIELDS];
+    private float[] boosts = new float[1024];
+    private int[] docOrdinals = new int[1024];
+    private int documents;
+
+    @Autowired
+    public RelevanceIndex(@Value("${spotifo.relevance.popularity-weight:0.5}") float popularityWeight) {
+        this.popularityWeight = popularityWeight;
+    }
+
+    @Override
+    public void add(int ordinal, Song song) {
+        List<List<String>> fields = List.of(Tokenizer.tokens(song.getTrackName()), Tokenizer.tokens(song.getArtistNames()),
+                Tokenizer.tokens(song.getAlbumName()), Tokenizer.tokens(song.getLabel()));
+        lock.writeLock().lock();
+        try {
+            if (ordinal >= boosts.length) {
+                int capacity = Math.max(ordinal + 1, boosts.length * 2);
+                for (int field = 0; field < FIELDS; field++) {
+                    lengths[field] = Arrays.copyOf(lengths[field], capacity);
+                }
+                boosts = Arrays.copyOf(boosts, capacity);
+            }
+            Map<Integer, Integer> frequencies = new HashMap<>();
+            for (int field = 0; field < FIELDS; field++) {
+                lengths[field][ordinal] = fields.get(field).size();
+                totalLengths[field] += fields.get(field).size();
+                for (String token : fields.get(field)) {
+                    // one byte per field, saturating at 255
+                    int shift = 8 * field;
+                    frequencies.merge(termId(token), 1 << shift, (packed, one) ->
+                            ((packed >>> shift) & 0xFF) == 0xFF ? packed : packed + one);
+                }
+            }
+            if (documents == docOrdinals.length) {
+                docOrdinals = Arrays.copyOf(docOrdinals, documents * 2);
+            }
+            int doc = documents++;
+            docOrdinals[doc] = ordinal;
+            boosts[ordinal] = 1f + popularityWeight * (song.getPopularity() == null ? 0 : Math.clamp(song.getPopularity(), 0, 100)) / 100f;
+            frequencies.forEach((term, packed) -> postings.get(term).add(doc, packed, impact(ordinal, packed)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renumbers documents by popularity and rescores every posting against the field lengths of the
+     * complete catalog. Songs added later are numbered after the loaded ones and use the averages of
+     * the moment, which move little once the catalog is loaded.
+     */
+    @Override
+    public void loaded() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            int[] ordinals = Arrays.copyOf(docOrdinals, documents);
+            Integer[] order = new Integer[documents];
+            for (int doc = 0; doc < documents; doc++) {
+                order[doc] = doc;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(doc -> -boosts[ordinals[doc]]).thenComparingInt(doc -> ordinals[doc]));
+            int[] renumbered = new int[documents];
+            for (int doc = 0; doc < documents; doc++) {
+                renumbered[order[doc]] = doc;
+                docOrdinals[doc] = ordinals[order[doc]];
+            }
+            for (Postings list : postings) {
+                list.renumber(renumbered);
+                for (int i = 0; i < list.size; i++) {
+                    list.impacts[i] = impact(docOrdinals[list.docs[i]], list.frequencies[i]);
+                }
+                list.summarize();
+            }
+            logger.info("Relevance index holds {} terms over {} songs, scored in {} ms", postings.size(), documents,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} best matches for the query, best first; equal scores favour the more popular song.
+     */
+    public List<Hit> search(String query, int k, boolean fuzzy) {
+        long start = System.nanoTime();
+        List<String> tokens = Tokenizer.tokens(query);
+        if (tokens.size() > MAX_QUERY_TERMS) {
+            tokens = tokens.subList(0, MAX_QUERY_TERMS);
+        }
+        lock.readLock().lock();
+        try {
+            List<Cursor> cursors = new ArrayList<>();
+            for (String token : tokens) {
+                Integer exact = termIds.get(token);
+                if (exact != null) {
+                    cursors.add(cursor(exact, idf(postings.get(exact).size), 1f));
+                } else if (fuzzy && token.length() >= 4) {
+                    List<TermTrie.Match> matches = trie.within(token, token.length() >= 8 ? 2 : 1).stream()
+                            .sorted(Comparator.comparingInt(TermTrie.Match::edits)
+                                    .thenComparing(match -> -postings.get(match.term()).size))
+                            .limit(MAX_EXPANSIONS)
+                            .toList();
+                    if (!matches.isEmpty()) {
+                        cursors.add(expansions(matches));
+                    }
+                }
+            }
+            List<Hit> hits = new ArrayList<>();
+            for (Hit hit : maxScore(cursors, k)) {
+                hits.add(new Hit(docOrdinals[hit.ordinal()], hit.score()));
+            }
+            logger.debug("Scored '{}' over {} query terms in {} µs", query, cursors.size(), (System.nanoTime() - start) / 1_000);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return hits carrying internal document numbers
+     */
+    private List<Hit> maxScore(List<Cursor> cursors, int k) {
+        ScoreHeap heap = new ScoreHeap(k);
+        if (cursors.isEmpty()) {
+            return heap.sorted();
+        }
+        cursors.sort(Comparator.comparingDouble(cursor -> cursor.bound));
+        int n = cursors.size();
+        // bounds[i]: the most terms 0..i can add to any song's score
+        float[] bounds = new float[n];
+        float[] blockBounds = new float[n];
+        float sum = 0f;
+        for (int i = 0; i < n; i++) {
+            sum += cursors.get(i).bound;
+            bounds[i] = sum;
+        }
+        int essential = 0;
+        while (true) {
+            float threshold = heap.threshold();
+            while (essential < n && bounds[essential] <= threshold) {
+                essential++;
+            }
+            if (essential == n) {
+                break;
+            }
+            int doc = Integer.MAX_VALUE;
+            for (int i = essential; i < n; i++) {
+                doc = Math.min(doc, cursors.get(i).doc());
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            // From doc up to blockEnd, no document can score more than the sum of the block maxima of
+            // the terms positioned on doc (a term already past doc adds nothing before its next
+            // posting); blockBounds[i] is that sum over terms 0..i
+            float blockBound = 0f;
+            int blockEnd = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                Cursor cursor = cursors.get(i);
+                if (i < essential) {
+                    cursor.advance(doc);
+                }
+                if (cursor.doc() == doc) {
+                    blockBound += cursor.blockBound();
+                    blockEnd = Math.min(blockEnd, cursor.blockEnd());
+                } else if (cursor.doc() != Integer.MAX_VALUE) {
+                    blockEnd = Math.min(blockEnd, cursor.doc() - 1);
+                }
+                blockBounds[i] = blockBound;
+            }
+            if (blockBound <= threshold) {
+                for (int i = essential; i < n; i++) {
+                    cursors.get(i).advance(blockEnd + 1);
+                }
+                continue;
+            }
+            float score = 0f;
+            for (int i = essential; i < n; i++) {
+                Cursor cursor = cursors.get(i);
+                if (cursor.doc() == doc) {
+                    score += cursor.score();
+                    cursor.next();
+                }
+            }
+            for (int i = essential - 1; i >= 0 && score + blockBounds[i] > threshold; i--) {
+                Cursor cursor = cursors.get(i);
+                if (cursor.doc() == doc) {
+                    score += cursor.score();
+                }
+            }
+            if (score > threshold) {
+                heap.offer(doc, score);
+            }
+        }
+        return heap.sorted();
+    }
+
+    private Cursor cursor(int term, float idf, float weight) {
+        return new TermCursor(postings.get(term), idf * weight);
+    }
+
+    /**
+     * One clause over the expansions of a misspelled term, best match first. Each is weighted by the
+     * lower of its own idf and the best match's, so rarity alone doesn't promote a worse match.
+     */
+    private Cursor expansions(List<TermTrie.Match> matches) {
+        float cap = idf(postings.get(matches.getFirst().term()).size);
+        List<Cursor> cursors = new ArrayList<>(matches.size());
+        for (TermTrie.Match match : matches) {
+            float idf = Math.min(cap, idf(postings.get(match.term()).size));
+            cursors.add(cursor(match.term(), idf, 1f - EDIT_DISCOUNT * match.edits()));
+        }
+        return cursors.size() == 1 ? cursors.getFirst() : new AnyCursor(cursors);
+    }
+
+    private float idf(int frequency) {
+        return (float) Math.log(1 + (documents - frequency + 0.5) / (frequency + 0.5));
+    }
+
+    private int termId(String token) {
+        Integer id = termIds.get(token);
+        if (id == null) {
+            id = postings.size();
+            termIds.put(token, id);
+            postings.add(new Postings());
+            trie.add(token, id);
+        }
+        return id;
+    }
+
+    /**
+     * BM25F (field frequencies weighted and length-normalized, then saturated into [0, 1)) times the
+     * song's popularity boost.
+     */
+    private float impact(int ordinal, int packed) {
+        float frequency = 0f;
+        for (int field = 0; field < FIELDS; field++) {
+            int count = (packed >>> (8 * field)) & 0xFF;
+            if (count > 0) {
+                float average = documents == 0 ? 1f : Math.max(1f, (float) totalLengths[field] / documents);
+                frequency += FIELD_WEIGHTS[field] * count / (1 - B + B * lengths[field][ordinal] / average);
+            }
+        }
+        return frequency / (K1 + frequency) * boosts[ordinal];
+    }
+
+    /**
+     * A match and its relevance score.
+     */
+    public record Hit(int ordinal, float score) {
+    }
+
+    /**
+     * Documents containing a term in ascending order, with their packed field frequencies and impact,
+     * and the highest impact overall and per block.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[2];
+        private int[] frequencies = new int[2];
+        private float[] impacts = new float[2];
+        private float[] blockMax = new float[1];
+        private int size;
+        private float max;
+
+        private void add(int doc, int packed, float impact) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+                impacts = Arrays.copyOf(impacts, size * 2);
+            }
+            int block = size / BLOCK;
+            if (block == blockMax.length) {
+                blockMax = Arrays.copyOf(blockMax, blockMax.length * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = packed;
+            impacts[size++] = impact;
+            blockMax[block] = Math.max(blockMax[block], impact);
+            max = Math.max(max, impact);
+        }
+
+        private void renumber(int[] renumbered) {
+            long[] entries = new long[size];
+            for (int i = 0; i < size; i++) {
+                entries[i] = (long) renumbered[docs[i]] << 32 | frequencies[i] & 0xFFFFFFFFL;
+            }
+            Arrays.sort(entries);
+            for (int i = 0; i < size; i++) {
+                docs[i] = (int) (entries[i] >>> 32);
+                frequencies[i] = (int) entries[i];
+            }
+        }
+
+        private void summarize() {
+            Arrays.fill(blockMax, 0f);
+            max = 0f;
+            for (int i = 0; i < size; i++) {
+                blockMax[i / BLOCK] = Math.max(blockMax[i / BLOCK], impacts[i]);
+                max = Math.max(max, impacts[i]);
+            }
+        }
+    }
+
+    /**
+     * A query term's walk over the documents that contain it, in ascending order.
+     */
+    private abstract static class Cursor {
+
+        /**
+         * The most this term adds to any song's score.
+         */
+        protected final float bound;
+
+        protected Cursor(float bound) {
+            this.bound = bound;
+        }
+
+        /**
+         * @return the current document, or {@link Integer#MAX_VALUE} once exhausted
+         */
+        abstract int doc();
+
+        abstract float score();
+
+        /**
+         * @return the most this term adds to any document from the current one up to {@link #blockEnd()}
+         */
+        abstract float blockBound();
+
+        /**
+         * @return the last document covered by {@link #blockBound()}
+         */
+        abstract int blockEnd();
+
+        abstract void next();
+
+        /**
+         * Moves to the first document at or after the target.
+         */
+        abstract int advance(int target);
+    }
+
+    private static final class TermCursor extends Cursor {
+
+        private final Postings list;
+        private final float weight;
+        private int position;
+
+        private TermCursor(Postings list, float weight) {
+            super(weight * list.max);
+            this.list = list;
+            this.weight = weight;
+        }
+
+        @Override
+        int doc() {
+            return position < list.size ? list.docs[position] : Integer.MAX_VALUE;
+        }
+
+        @Override
+        float score() {
+            return weight * list.impacts[position];
+        }
+
+        @Override
+        float blockBound() {
+            return weight * list.blockMax[position / BLOCK];
+        }
+
+        @Override
+        int blockEnd() {
+            return list.docs[Math.min(list.size, (position / BLOCK + 1) * BLOCK) - 1];
+        }
+
+        @Override
+        void next() {
+            position++;
+        }
+
+        /**
+         * Gallops then binary searches.
+         */
+        @Override
+        int advance(int target) {
+            if (doc() >= target) {
+                return doc();
+            }
+            int step = 1;
+            int low = position;
+            int high = position + 1;
+            while (high < list.size && list.docs[high] < target) {
+                low = high;
+                step <<= 1;
+                high = position + step;
+            }
+            high = Math.min(high, list.size);
+            int found = Arrays.binarySearch(list.docs, low, high, target);
+            position = found >= 0 ? found : -found - 1;
+            return doc();
+        }
+    }
+
+    /**
+     * Several terms standing for one: a document scores the best of the terms it contains. Up to the
+     * nearest block end of any of them, each term stays within its current block, so the largest of
+     * their block maxima bounds the clause.
+     */
+    private static final class AnyCursor extends Cursor {
+
+        private final Cursor[] terms;
+
+        private AnyCursor(List<Cursor> terms) {
+            super(terms.stream().map(term -> term.bound).max(Float::compare).orElse(0f));
+            this.terms = terms.toArray(Cursor[]::new);
+        }
+
+        @Override
+        int doc() {
+            int doc = Integer.MAX_VALUE;
+            for (Cursor term : terms) {
+                doc = Math.min(doc, term.doc());
+            }
+            return doc;
+        }
+
+        @Override
+        float score() {
+            int doc = doc();
+            float score = 0f;
+            for (Cursor term : terms) {
+                if (term.doc() == doc) {
+                    score = Math.max(score, term.score());
+                }
+            }
+            return score;
+        }
+
+        @Override
+        float blockBound() {
+            float bound = 0f;
+            for (Cursor term : terms) {
+                if (term.doc() != Integer.MAX_VALUE) {
+                    bound = Math.max(bound, term.blockBound());
+                }
+            }
+            return bound;
+        }
+
+        @Override
+        int blockEnd() {
+            int end = Integer.MAX_VALUE;
+            for (Cursor term : terms) {
+                if (term.doc() != Integer.MAX_VALUE) {
+                    end = Math.min(end, term.blockEnd());
+                }
+            }
+            return end;
+        }
+
+        @Override
+        void next() {
+            int doc = doc();
+            for (Cursor term : terms) {
+                if (term.doc() == doc) {
+                    term.next();
+                }
+            }
+        }
+
+        @Override
+        int advance(int target) {
+            for (Cursor term : terms) {
+                term.advance(target);
+            }
+            return doc();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package songservice.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded min-heap of scores, so the current k-th best is at the root and {@link #threshold()} is
+ * the score a candidate must beat to enter. Equal scores prefer the lower ordinal.
+ */
+final class ScoreHeap {
+
+    private final int[] ordinals;
+    private final float[] scores;
+    private int size;
+
+    ScoreHeap(int capacity) {
+        this.ordinals = new int[capacity];
+        this.scores = new float[capacity];
+    }
+
+    float threshold() {
+        return size < scores.length ? 0f : scores[0];
+    }
+
+    void offer(int ordinal, float score) {
+        if (size < scores.length) {
+            int i = size++;
+            while (i > 0 && worse(ordinal, score, ordinals[(i - 1) / 2], scores[(i - 1) / 2])) {
+                int parent = (i - 1) / 2;
+                ordinals[i] = ordinals[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            ordinals[i] = ordinal;
+            scores[i] = score;
+        } else if (worse(ordinals[0], scores[0], ordinal, score)) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && worse(ordinals[child + 1], scores[child + 1], ordinals[child], scores[child])) {
+                    child++;
+                }
+                if (!worse(ordinals[child], scores[child], ordinal, score)) {
+                    break;
+                }
+                ordinals[i] = ordinals[child];
+                scores[i] = scores[child];
+                i = child;
+            }
+            ordinals[i] = ordinal;
+            scores[i] = score;
+        }
+    }
+
+    List<RelevanceIndex.Hit> sorted() {
+        List<RelevanceIndex.Hit> hits = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            hits.add(new RelevanceIndex.Hit(ordinals[i], scores[i]));
+        }
+        hits.sort((a, b) -> worse(a.ordinal(), a.score(), b.ordinal(), b.score()) ? 1 : -1);
+        return hits;
+    }
+
+    private static boolean worse(int ordinal, float score, int otherOrdinal, float otherScore) {
+        return score < otherScore || (score == otherScore && ordinal > otherOrdinal);
+    }
+}
@@ -0,0 +1,18 @@
+package songservice.search;
+
+import songservice.dto.SongFilter;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Answers the substring filters of {@code GET /song} without touching the database.
+ */
+public interface SongSearchEngine {
+
+    /**
+     * @return the ISRCs of every matching song, or empty when the engine can't answer the filter
+     * (still warming up, or too many matches to hydrate efficiently) and the JPQL path should be used
+     */
+    Optional<List<String>> findIsrcs(SongFilter filter);
+}
@@ -0,0 +1,94 @@
+package songservice.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Character trie over the term dictionary. A fuzzy lookup walks it depth first carrying one row of
+ * the edit distance table per trie level (optimal string alignment, so a swap of two adjacent
+ * letters is one edit) and abandons a branch as soon as every cell of its row exceeds the limit, so
+ * only prefixes within reach of the query are ever visited: the trie acts as the dictionary automaton
+ * intersected with the query's Levenshtein automaton.
+ */
+final class TermTrie {
+
+    private final Node root = new Node();
+
+    void add(String term, int id) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.child(term.charAt(i));
+        }
+        node.term = id;
+    }
+
+    /**
+     * Every term within {@code maxEdits} of the word, with its distance.
+     */
+    List<Match> within(String word, int maxEdits) {
+        List<Match> matches = new ArrayList<>();
+        int[] first = new int[word.length() + 1];
+        for (int j = 0; j < first.length; j++) {
+            first[j] = j;
+        }
+        for (int i = 0; i < root.size; i++) {
+            walk(root.children[i], root.labels[i], (char) 0, null, first, word, maxEdits, matches);
+        }
+        return matches;
+    }
+
+    private static void walk(Node node, char c, char previous, int[] previousRow, int[] row, String word, int maxEdits,
+                             List<Match> matches) {
+        int[] next = new int[row.length];
+        next[0] = row[0] + 1;
+        int best = next[0];
+        for (int j = 1; j < next.length; j++) {
+            char w = word.charAt(j - 1);
+            int cost = w == c ? 0 : 1;
+            int distance = Math.min(Math.min(next[j - 1] + 1, row[j] + 1), row[j - 1] + cost);
+            if (previousRow != null && j > 1 && w == previous && word.charAt(j - 2) == c) {
+                distance = Math.min(distance, previousRow[j - 2] + 1);
+            }
+            next[j] = distance;
+            best = Math.min(best, distance);
+        }
+        if (node.term >= 0 && next[next.length - 1] <= maxEdits) {
+            matches.add(new Match(node.term, next[next.length - 1]));
+        }
+        if (best > maxEdits) {
+            return;
+        }
+        for (int i = 0; i < node.size; i++) {
+            walk(node.children[i], node.labels[i], c, row, next, word, maxEdits, matches);
+        }
+    }
+
+    record Match(int term, int edits) {
+    }
+
+    private static final class Node {
+
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private int term = -1;
+
+        private Node child(char label) {
+            for (int i = 0; i < size; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            if (size == labels.length) {
+                int capacity = Math.max(2, size * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            Node child = new Node();
+            labels[size] = label;
+            children[size++] = child;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package songservice.service;
+
+import songservice.dto.ImportReport;
+
+public interface CsvImportService {
+
+    /**
+     * Loads the configured CSV export for {@code songs2025} or {@code songs2024}, skipping rows whose
+     * ISRC is already stored. With {@code resume}, continues after the last committed row of an
+     * interrupted run of the same file.
+     */
+    ImportReport importDataset(String dataset, boolean resume);
+}
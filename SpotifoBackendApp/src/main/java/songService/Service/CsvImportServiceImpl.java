@@ -0,0 +1,237 @@
+package songservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import songservice.bulkhead.BulkheadTransactionTemplate;
+import songservice.bulkhead.DatabaseBulkhead;
+import songservice.catalog.SongsCreatedEvent;
+import songservice.catalog.SongsUpdatedEvent;
+import songservice.dto.ImportReport;
+import songservice.entity.Song;
+import songservice.entity.SongMetrics;
+import songservice.entity.SongV2;
+import songservice.exception.DatabaseException;
+import songservice.exception.ImportException;
+import songservice.exception.InvalidQueryException;
+import songservice.importer.CsvReader;
+import songservice.importer.ImportCheckpoint;
+import songservice.repository.JdbcTableMapping;
+import songservice.repository.SongJdbcRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Two-stage pipeline: a parser thread turns memory-mapped CSV records into typed rows and hands them
+ * over in chunks through a bounded queue, while the calling thread writes each chunk as one JDBC batch
+ * and checkpoints the byte offset it reached. songs2024 rows get their numeric metrics written in the
+ * same transaction.
+ */
+@Service
+public class CsvImportServiceImpl implements CsvImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvImportServiceImpl.class);
+    private final SongJdbcRepository songJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, String> files;
+    private final Path checkpointDir;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    @Autowired
+    public CsvImportServiceImpl(SongJdbcRepository songJdbcRepository, ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager, ObjectProvider<DatabaseBulkhead> bulkhead,
+                                @Value("${spotifo.import.songs2025-path:}") String songsPath,
+                                @Value("${spotifo.import.songs2024-path:}") String songsV2Path,
+                                @Value("${spotifo.import.checkpoint-dir:import-checkpoints}") String checkpointDir,
+                                @Value("${spotifo.import.chunk-size:5000}") int chunkSize,
+                                @Value("${spotifo.import.queue-capacity:8}") int queueCapacity) {
+        this.songJdbcRepository = songJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new BulkheadTransactionTemplate(transactionManager, bulkhead);
+        this.files = Map.of("songs2025", songsPath, "songs2024", songsV2Path);
+        this.checkpointDir = Path.of(checkpointDir);
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public ImportReport importDataset(String dataset, boolean resume) {
+        JdbcTableMapping<?> mapping = switch (dataset) {
+            case "songs2025" -> SongJdbcRepository.SONGS;
+            case "songs2024" -> SongJdbcRepository.SONGS_V2;
+            default -> throw new InvalidQueryException("Unknown dataset: " + dataset);
+        };
+        if (files.get(dataset).isBlank()) {
+            throw new InvalidQueryException("No CSV file configured for dataset: " + dataset);
+        }
+        logger.info("Importing {} from {}", dataset, files.get(dataset));
+        try {
+            ImportReport report = run(dataset, mapping, Path.of(files.get(dataset)), resume);
+            logger.info("Imported {}: {} rows read, {} inserted in {} ms ({} rows/s)", dataset, report.getRowsRead(),
+                    report.getRowsInserted(), report.getElapsedMs(), Math.round(report.getRowsPerSecond()));
+            return report;
+        } catch (DataAccessException e) {
+            logger.error("Database error while importing {}", dataset, e);
+            throw new DatabaseException("Failed to import " + dataset, e);
+        } catch (IOException e) {
+            throw new ImportException("Failed to read " + dataset + " CSV file", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportException("Import of " + dataset + " was interrupted", e);
+        }
+    }
+
+    private ImportReport run(String dataset, JdbcTableMapping<?> mapping, Path file, boolean resume) throws IOException, InterruptedException {
+        Files.createDirectories(checkpointDir);
+        Path checkpointPath = checkpointDir.resolve(dataset + ".checkpoint");
+        long fileSize = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        ImportCheckpoint checkpoint = resume ? ImportCheckpoint.read(checkpointPath) : null;
+        if (checkpoint != null && !checkpoint.matches(fileSize, modified)) {
+            logger.info("Ignoring checkpoint for {} because the file changed", dataset);
+            checkpoint = null;
+        }
+        ImportReport report = ImportReport.builder()
+                .dataset(dataset)
+                .resumedFromRow(checkpoint == null ? 0 : checkpoint.rows())
+                .build();
+        long start = System.nanoTime();
+
+        try (CsvReader reader = new CsvReader(file)) {
+            String[] header = reader.readRecord();
+            if (header == null) {
+                return report;
+            }
+            int[] columnOf = Arrays.stream(header).mapToInt(name -> mapping.indexOf(name.trim())).toArray();
+            int isrcColumn = mapping.indexOf("ISRC");
+            if (Arrays.stream(columnOf).noneMatch(column -> column == isrcColumn)) {
+                throw new ImportException(dataset + " CSV file has no ISRC column", null);
+            }
+            if (checkpoint != null) {
+                reader.seek(checkpoint.offset());
+            }
+
+            BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(queueCapacity);
+            AtomicBoolean cancelled = new AtomicBoolean();
+            Thread parser = Thread.ofPlatform().name("csv-import-" + dataset)
+                    .start(() -> parse(reader, mapping, columnOf, isrcColumn, queue, cancelled));
+            try {
+                long rows = report.getResumedFromRow();
+                while (true) {
+                    Chunk chunk = queue.take();
+                    if (chunk.failure() != null) {
+                        throw new ImportException("Failed to parse " + dataset + " CSV file", chunk.failure());
+                    }
+                    write(mapping, chunk, isrcColumn, report);
+                    rows += chunk.rows().size() + chunk.invalid();
+                    new ImportCheckpoint(fileSize, modified, chunk.endOffset(), rows).write(checkpointPath);
+                    if (chunk.last()) {
+                        break;
+                    }
+                }
+            } finally {
+                cancelled.set(true);
+                queue.clear();
+                parser.join();
+            }
+        }
+        Files.deleteIfExists(checkpointPath);
+        report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        report.setRowsPerSecond(report.getRowsRead() * 1000.0 / Math.max(1, report.getElapsedMs()));
+        return report;
+    }
+
+    private void parse(CsvReader reader, JdbcTableMapping<?> mapping, int[] columnOf, int isrcColumn,
+                       BlockingQueue<Chunk> queue, AtomicBoolean cancelled) {
+        int width = mapping.columns().size();
+        try {
+            List<Object[]> rows = new ArrayList<>(chunkSize);
+            long invalid = 0;
+            String[] record;
+            while (!cancelled.get() && (record = reader.readRecord()) != null) {
+                Object[] values = new Object[width];
+                for (int i = 0; i < Math.min(record.length, columnOf.length); i++) {
+                    if (columnOf[i] >= 0) {
+                        values[columnOf[i]] = mapping.convert(columnOf[i], record[i]);
+                    }
+                }
+                if (values[isrcColumn] == null) {
+                    invalid++;
+                } else {
+                    rows.add(values);
+                }
+                if (rows.size() + invalid == chunkSize) {
+                    hand(queue, new Chunk(rows, invalid, reader.position(), false, null), cancelled);
+                    rows = new ArrayList<>(chunkSize);
+                    invalid = 0;
+                }
+            }
+            hand(queue, new Chunk(rows, invalid, reader.position(), true, null), cancelled);
+        } catch (Exception e) {
+            hand(queue, new Chunk(List.of(), 0, 0, true, e), cancelled);
+        }
+    }
+
+    private static void hand(BlockingQueue<Chunk> queue, Chunk chunk, AtomicBoolean cancelled) {
+        try {
+            while (!cancelled.get() && !queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                // writer is behind; keep waiting unless the import was abandoned
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(JdbcTableMapping<?> mapping, Chunk chunk, int isrcColumn, ImportReport report) {
+        Set<String> isrcs = new HashSet<>();
+        List<Object[]> unique = new ArrayList<>(chunk.rows().size());
+        for (Object[] row : chunk.rows()) {
+            if (isrcs.add((String) row[isrcColumn])) {
+                unique.add(row);
+            }
+        }
+        List<Object[]> fresh = transactionTemplate.execute(status -> {
+            Set<String> existing = songJdbcRepository.findExistingIsrcs(mapping, isrcs);
+            List<Object[]> inserted = unique.stream().filter(row -> !existing.contains((String) row[isrcColumn])).toList();
+            songJdbcRepository.batchInsert(mapping, mapping.columns(), inserted);
+            if (mapping == SongJdbcRepository.SONGS) {
+                List<Song> songs = inserted.stream().map(SongJdbcRepository.SONGS::toEntity).toList();
+                eventPublisher.publishEvent(new SongsCreatedEvent(songs));
+            } else {
+                List<SongV2> attached = inserted.stream().map(SongJdbcRepository.SONGS_V2::toEntity).toList();
+                List<SongMetrics> metrics = attached.stream().map(SongMetrics::of).toList();
+                songJdbcRepository.insertAll(SongJdbcRepository.SONG_METRICS, metrics);
+                eventPublisher.publishEvent(new SongsUpdatedEvent(metrics.stream().map(SongMetrics::getIsrc).toList(), attached));
+            }
+            return inserted;
+        });
+        report.setRowsRead(report.getRowsRead() + chunk.rows().size() + chunk.invalid());
+        report.setRowsInserted(report.getRowsInserted() + fresh.size());
+        report.setDuplicates(report.getDuplicates() + chunk.rows().size() - fresh.size());
+        report.setInvalid(report.getInvalid() + chunk.invalid());
+    }
+
+    private record Chunk(List<Object[]> rows, long invalid, long endOffset, boolean last, Exception failure) {
+    }
+}
@@ -0,0 +1,50 @@
+package songservice.service;
+
+import songservice.exception.InvalidQueryException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort column and direction it was issued for,
+ * plus the sort key and ISRC of the last song returned.
+ */
+record SongCursor(String sortBy, boolean ascending, String lastValue, String lastIsrc) {
+
+    private static final byte VERSION = 1;
+
+    String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sortBy);
+            out.writeBoolean(ascending);
+            out.writeBoolean(lastValue != null);
+            if (lastValue != null) {
+                out.writeUTF(lastValue);
+            }
+            out.writeUTF(lastIsrc);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    static SongCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new InvalidQueryException("Unsupported cursor version");
+            }
+            String sortBy = in.readUTF();
+            boolean ascending = in.readBoolean();
+            String lastValue = in.readBoolean() ? in.readUTF() : null;
+            return new SongCursor(sortBy, ascending, lastValue, in.readUTF());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidQueryException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package songservice.service;
+
+import songservice.dto.ExportFormat;
+import songservice.dto.SongFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface SongExportService {
+
+    /**
+     * Writes every song matching the filter to {@code out}, in ISRC order, with or without its
+     * songs2024 fields. Rows are streamed from a forward-only cursor, so memory use doesn't grow with
+     * the catalog.
+     */
+    void exportSongs(SongFilter filter, boolean includeSongV2, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,129 @@
+package songservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import songservice.dto.ExportFormat;
+import songservice.dto.SongFilter;
+import songservice.dto.SongMapper;
+import songservice.entity.Song;
+import songservice.entity.SongV2;
+import songservice.exception.DatabaseException;
+import songservice.importer.CsvWriter;
+import songservice.repository.SongRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static songservice.repository.SongJdbcRepository.SONGS;
+import static songservice.repository.SongJdbcRepository.SONGS_V2;
+
+@Service
+public class SongExportServiceImpl implements SongExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongExportServiceImpl.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final SongRepository songRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public SongExportServiceImpl(SongRepository songRepository, ObjectMapper objectMapper) {
+        this.songRepository = songRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportSongs(SongFilter filter, boolean includeSongV2, ExportFormat format, OutputStream out) throws IOException {
+        logger.info("Exporting songs as {} (songs2024: {})", format, includeSongV2);
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count;
+        try (Stream<Song> songs = songRepository.streamSongs(filter, includeSongV2)) {
+            count = switch (format) {
+                case NDJSON -> writeNdjson(songs.iterator(), includeSongV2, writer);
+                case CSV -> writeCsv(songs.iterator(), includeSongV2, writer);
+            };
+        } catch (DataAccessException e) {
+            logger.error("Failed to export songs", e);
+            throw new DatabaseException("Failed to export songs", e);
+        }
+        writer.flush();
+        logger.info("Exported {} songs in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long writeNdjson(Iterator<Song> songs, boolean includeSongV2, Writer writer) throws IOException {
+        long count = 0;
+        try (SequenceWriter sequence = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            while (songs.hasNext()) {
+                Song song = songs.next();
+                sequence.write(includeSongV2 ? SongMapper.INSTANCE.toDTO(song) : SongMapper.INSTANCE.toDTOWithoutSongV2(song));
+                detach(song, includeSongV2);
+                count++;
+            }
+        }
+        if (count > 0) {
+            writer.write('\n');
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Song> songs, boolean includeSongV2, Writer writer) throws IOException {
+        List<String> songV2Columns = SONGS_V2.columns().subList(1, SONGS_V2.columns().size());
+        List<String> header = new ArrayList<>(SONGS.columns());
+        if (includeSongV2) {
+            songV2Columns.forEach(column -> header.add("songs2024 " + column));
+        }
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord(header);
+        Object[] noSongV2 = new Object[includeSongV2 ? songV2Columns.size() : 0];
+        long count = 0;
+        while (songs.hasNext()) {
+            Song song = songs.next();
+            SongV2 songV2 = includeSongV2 ? song.getSongV2() : null;
+            csv.writeRecord(SONGS.values(song), songV2 == null ? noSongV2 : withoutIsrc(SONGS_V2.values(songV2)));
+            detach(song, includeSongV2);
+            count++;
+        }
+        return count;
+    }
+
+    private static Object[] withoutIsrc(Object[] values) {
+        Object[] rest = new Object[values.length - 1];
+        System.arraycopy(values, 1, rest, 0, rest.length);
+        return rest;
+    }
+
+    /**
+     * Keeps the persistence context from growing with every row the cursor has passed. The songs2024
+     * row is only looked at when it was fetched, so an unfetched association is never initialized.
+     */
+    private void detach(Song song, boolean songV2Fetched) {
+        if (songV2Fetched && song.getSongV2() != null) {
+            entityManager.detach(song.getSongV2());
+        }
+        entityManager.detach(song);
+    }
+}
@@ -0,0 +1,17 @@
+package songservice.service;
+
+import songservice.dto.IngestItemResult;
+import songservice.dto.IngestReport;
+import songservice.dto.SongDTO;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+public interface SongIngestService {
+
+    /**
+     * Consumes the songs chunk by chunk, reporting each item as soon as its chunk is written. A
+     * {@code null} element stands for an item that could not be read and is reported as invalid.
+     */
+    IngestReport ingest(Iterator<SongDTO> songs, Consumer<IngestItemResult> results);
+}
@@ -0,0 +1,135 @@
+package songservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import songservice.bulkhead.BulkheadTransactionTemplate;
+import songservice.bulkhead.DatabaseBulkhead;
+import songservice.catalog.SongsCreatedEvent;
+import songservice.dto.IngestItemResult;
+import songservice.dto.IngestItemResult.Status;
+import songservice.dto.IngestReport;
+import songservice.dto.SongDTO;
+import songservice.dto.SongMapper;
+import songservice.entity.Song;
+import songservice.repository.SongJdbcRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Service
+public class SongIngestServiceImpl implements SongIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongIngestServiceImpl.class);
+    private final SongJdbcRepository songJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public SongIngestServiceImpl(SongJdbcRepository songJdbcRepository, ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager, ObjectProvider<DatabaseBulkhead> bulkhead,
+                                 @Value("${spotifo.ingest.chunk-size:1000}") int chunkSize) {
+        this.songJdbcRepository = songJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new BulkheadTransactionTemplate(transactionManager, bulkhead);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public IngestReport ingest(Iterator<SongDTO> songs, Consumer<IngestItemResult> results) {
+        logger.info("Ingesting songs in chunks of {}", chunkSize);
+        long start = System.nanoTime();
+        IngestReport report = new IngestReport();
+        List<SongDTO> chunk = new ArrayList<>(chunkSize);
+        try {
+            while (songs.hasNext()) {
+                chunk.add(songs.next());
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, report, results);
+                    chunk.clear();
+                }
+            }
+            writeChunk(chunk, report, results);
+        } catch (DataAccessException e) {
+            // Earlier chunks are already committed, so the failure is reported alongside them
+            logger.error("Database error while ingesting songs", e);
+            report.setError("Failed to ingest songs after " + report.getReceived() + " items");
+        } finally {
+            report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+            report.setSongsPerSecond(report.getReceived() * 1000.0 / Math.max(1, report.getElapsedMs()));
+        }
+        logger.info("Ingested {} songs ({} created, {} duplicates, {} invalid) at {} songs/s", report.getReceived(),
+                report.getCreated(), report.getDuplicates(), report.getInvalid(), Math.round(report.getSongsPerSecond()));
+        return report;
+    }
+
+    /**
+     * Validates the chunk, removes duplicates with one set-based ISRC lookup and writes the remaining
+     * songs as a single JDBC batch in its own transaction.
+     */
+    private void writeChunk(List<SongDTO> chunk, IngestReport report, Consumer<IngestItemResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        long firstIndex = report.getReceived();
+        Status[] statuses = new Status[chunk.size()];
+        Set<String> isrcs = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            SongDTO song = chunk.get(i);
+            if (song == null || isBlank(song.getIsrc()) || isBlank(song.getTrackName())) {
+                statuses[i] = Status.INVALID;
+            } else if (!isrcs.add(song.getIsrc())) {
+                statuses[i] = Status.DUPLICATE;
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> existing = songJdbcRepository.findExistingIsrcs(SongJdbcRepository.SONGS, isrcs);
+            List<Song> created = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (statuses[i] == null) {
+                    if (existing.contains(chunk.get(i).getIsrc())) {
+                        statuses[i] = Status.DUPLICATE;
+                    } else {
+                        statuses[i] = Status.CREATED;
+                        created.add(SongMapper.INSTANCE.toEntity(chunk.get(i)));
+                    }
+                }
+            }
+            songJdbcRepository.insertAll(SongJdbcRepository.SONGS, created);
+            eventPublisher.publishEvent(new SongsCreatedEvent(created));
+        });
+
+        for (int i = 0; i < chunk.size(); i++) {
+            SongDTO song = chunk.get(i);
+            switch (statuses[i]) {
+                case CREATED -> report.setCreated(report.getCreated() + 1);
+                case DUPLICATE -> report.setDuplicates(report.getDuplicates() + 1);
+                case INVALID -> report.setInvalid(report.getInvalid() + 1);
+            }
+            results.accept(IngestItemResult.builder()
+                    .index(firstIndex + i)
+                    .isrc(song == null ? null : song.getIsrc())
+                    .status(statuses[i])
+                    .message(statuses[i] != Status.INVALID ? null : song == null ? "Malformed song" : "ISRC and track name are required")
+                    .build());
+        }
+        report.setReceived(report.getReceived() + chunk.size());
+        report.setChunks(report.getChunks() + 1);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,84 @@
+package songservice.service;
+
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import songservice.bulkhead.BulkheadTransactionTemplate;
+import songservice.bulkhead.DatabaseBulkhead;
+import songservice.entity.SongMetrics;
+import songservice.entity.SongV2;
+import songservice.repository.SongJdbcRepository;
+import songservice.repository.SongV2Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Backfills {@code song_metrics} for songs2024 rows loaded before the table existed (or outside the
+ * importer). Only rows without metrics are read, so once caught up it costs a single anti-join.
+ */
+@Component
+public class SongMetricsMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongMetricsMigration.class);
+    private static final int BATCH_SIZE = 5000;
+    private final SongV2Repository songV2Repository;
+    private final SongJdbcRepository songJdbcRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    @Autowired
+    public SongMetricsMigration(SongV2Repository songV2Repository, SongJdbcRepository songJdbcRepository,
+                                EntityManager entityManager, PlatformTransactionManager transactionManager, ObjectProvider<DatabaseBulkhead> bulkhead,
+                                @Value("${spotifo.metrics.migrate-on-startup:true}") boolean enabled) {
+        this.songV2Repository = songV2Repository;
+        this.songJdbcRepository = songJdbcRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new BulkheadTransactionTemplate(transactionManager, bulkhead);
+        this.enabled = enabled;
+    }
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long migrated = transactionTemplate.execute(status -> {
+                long count = 0;
+                List<SongMetrics> batch = new ArrayList<>(BATCH_SIZE);
+                try (Stream<SongV2> songs = songV2Repository.streamWithoutMetrics()) {
+                    for (SongV2 song : (Iterable<SongV2>) songs::iterator) {
+                        batch.add(SongMetrics.of(song));
+                        entityManager.detach(song);
+                        if (batch.size() == BATCH_SIZE) {
+                            songJdbcRepository.insertAll(SongJdbcRepository.SONG_METRICS, batch);
+                            count += batch.size();
+                            batch.clear();
+                        }
+                    }
+                }
+                songJdbcRepository.insertAll(SongJdbcRepository.SONG_METRICS, batch);
+                return count + batch.size();
+            });
+            if (migrated > 0) {
+                logger.info("Parsed streaming metrics for {} songs", migrated);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Database error while migrating song metrics", e);
+        }
+    }
+}
@@ -1,16 +1,40 @@
 package songservice.service;
 
 import org.springframework.data.domain.Page;
+import songservice.dto.FacetedSongs;
+import songservice.dto.ScoredSong;
+import songservice.dto.SimilarSong;
 import songservice.dto.SongDTO;
 import songservice.dto.SongDisplay;
+import songservice.dto.SongLookup;
+import songservice.dto.SongSlice;
+
+import java.util.List;
+import java.util.Map;
 
 public interface SongService {
 
     Page<SongDisplay> getAllSongs(int page, int size);
 
-    Page<SongDisplay> getSongs(int page, int size, String sortBy, String sortDirection, String trackName, String artistName, String albumName, String releaseYear, int minPopularity);
+    Page<SongDisplay> getSongs(int page, int size, String sortBy, String sortDirection, String trackName, String artistName, String albumName, String releaseYear, int minPopularity, Long minReach, Long maxReach);
+
+    SongSlice scrollAllSongs(String cursor, int size);
+
+    SongSlice scrollSongs(String cursor, int size, String sortBy, String sortDirection, String trackName, String artistName, String albumName, String releaseYear, int minPopularity);
 
     SongDTO getSongByIsrc(String isrc);
 
+    Map<String, Object> getSongFieldsByIsrc(String isrc, String fields);
+
+    SongLookup<SongDTO> lookupSongs(List<String> isrcs);
+
+    SongLookup<SongDisplay> lookupSongDisplays(List<String> isrcs);
+
+    List<SimilarSong> getSimilarSongs(String isrc, int k);
+
+    List<ScoredSong> searchSongs(String query, int page, int size, boolean fuzzy);
+
+    FacetedSongs getFacetedSongs(int page, int size, String genres, String genreMode, String releaseYear, Integer minPopularity, int facets);
+
     SongDTO createSong(SongDTO songDTO);
 }
@@ -1,25 +1,67 @@
 package songservice.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import songservice.bulkhead.BulkheadTransactionTemplate;
+import songservice.bulkhead.DatabaseBulkhead;
+import songservice.cache.SongDetailCache;
+import songservice.cache.SongPageCache;
+import songservice.cache.SongPageKey;
+import songservice.catalog.CatalogVersion;
+import songservice.catalog.SongCatalog;
+import songservice.catalog.SongsCreatedEvent;
+import songservice.dto.FacetedSongs;
+import songservice.dto.ScoredSong;
+import songservice.dto.SimilarSong;
 import songservice.dto.SongDTO;
 import songservice.dto.SongDisplay;
+import songservice.dto.SongFields;
+import songservice.dto.SongLookup;
+import songservice.dto.SongFilter;
 import songservice.dto.SongMapper;
+import songservice.dto.SongSlice;
 import songservice.entity.Song;
 import songservice.exception.DatabaseException;
+import songservice.exception.InvalidQueryException;
 import songservice.exception.NoSongFoundException;
+import songservice.exception.ServiceUnavailableException;
 import songservice.exception.SongAlreadyExistException;
 import songservice.exception.SongNotFoundException;
+import songservice.facet.GenreFacetIndex;
 import songservice.repository.SongRepository;
+import songservice.repository.SongRepositoryCustom.KeyedSongDisplay;
+import songservice.search.RelevanceIndex;
+import songservice.search.SongSearchEngine;
+import songservice.similarity.SongSimilarityIndex;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -27,11 +69,66 @@ import java.util.Optional;
 public class SongServiceImpl implements SongService {
 
     private static final Logger logger = LoggerFactory.getLogger(SongServiceImpl.class);
+    private static final SongFilter NO_FILTER = new SongFilter(null, null, null, null, 0);
+    private static final Map<String, String> METRIC_SORTS = Map.of(
+            "reach", "totalReach",
+            "totalreach", "totalReach",
+            "spotifystreams", "spotifyStreams",
+            "youtubeviews", "youtubeViews",
+            "tiktokviews", "tiktokViews",
+            "shazamcounts", "shazamCounts",
+            "pandorastreams", "pandoraStreams",
+            "soundcloudstreams", "soundcloudStreams");
     private final SongRepository songRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SongSearchEngine searchEngine;
+    private final SongDetailCache songDetailCache;
+    private final SongPageCache songPageCache;
+    private final CatalogVersion catalogVersion;
+    private final SongCatalog songCatalog;
+    private final SongSimilarityIndex similarityIndex;
+    private final GenreFacetIndex facetIndex;
+    private final RelevanceIndex relevanceIndex;
+    private final int maxSimilar;
+    private final int maxLookup;
+    private final int maxFacets;
+    private final int maxSearchResults;
+    private final boolean projection;
+    private final Timer displayMapping;
+    private final Timer detailMapping;
+    private final TransactionTemplate readOnlyTransaction;
 
     @Autowired
-    public SongServiceImpl(SongRepository songRepository) {
+    public SongServiceImpl(SongRepository songRepository, ApplicationEventPublisher eventPublisher,
+                           ObjectProvider<SongSearchEngine> searchEngine, SongDetailCache songDetailCache,
+                           SongPageCache songPageCache, CatalogVersion catalogVersion, SongCatalog songCatalog,
+                           ObjectProvider<SongSimilarityIndex> similarityIndex, ObjectProvider<GenreFacetIndex> facetIndex,
+                           ObjectProvider<RelevanceIndex> relevanceIndex, MeterRegistry registry,
+                           PlatformTransactionManager transactionManager, ObjectProvider<DatabaseBulkhead> bulkhead,
+                           @Value("${spotifo.similarity.max-k:100}") int maxSimilar,
+                           @Value("${spotifo.lookup.max-isrcs:500}") int maxLookup,
+                           @Value("${spotifo.facets.max-facets:100}") int maxFacets,
+                           @Value("${spotifo.relevance.max-results:1000}") int maxSearchResults,
+                           @Value("${spotifo.query.display-mode:projection}") String displayMode) {
         this.songRepository = songRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchEngine = searchEngine.getIfAvailable();
+        this.songDetailCache = songDetailCache;
+        this.songPageCache = songPageCache;
+        this.catalogVersion = catalogVersion;
+        this.songCatalog = songCatalog;
+        this.similarityIndex = similarityIndex.getIfAvailable();
+        this.facetIndex = facetIndex.getIfAvailable();
+        this.relevanceIndex = relevanceIndex.getIfAvailable();
+        this.maxSimilar = maxSimilar;
+        this.maxLookup = maxLookup;
+        this.maxFacets = maxFacets;
+        this.maxSearchResults = maxSearchResults;
+        this.projection = displayMode.equalsIgnoreCase("projection");
+        this.displayMapping = mappingTimer(registry, "display");
+        this.detailMapping = mappingTimer(registry, "detail");
+        this.readOnlyTransaction = new BulkheadTransactionTemplate(transactionManager, bulkhead);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Override
@@ -45,7 +142,9 @@ public class SongServiceImpl implements SongService {
             Song song = SongMapper.INSTANCE.toEntity(songDTO);
             song.setAcousticness(songDTO.getAcousticness());
             song.setAddedAt(songDTO.getAddedAt());
-            return SongMapper.INSTANCE.toDTO(songRepository.save(song));
+            songRepository.persist(song);
+            eventPublisher.publishEvent(new SongsCreatedEvent(List.of(song)));
+            return SongMapper.INSTANCE.toDTO(song);
 
         } catch (DataAccessException e) {
             logger.error("Database error while creating song: {}", songDTO.getTrackName(), e);
@@ -55,13 +154,19 @@ public class SongServiceImpl implements SongService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public Page<SongDisplay> getAllSongs(int page, int size) {
         logger.info("Getting all songs by popularity");
         try {
             Pageable pageable = PageRequest.of(page-1, size);
-            Page<Song> songPage = songRepository.findAllSongsByPopularity(pageable);
+            SongPageKey key = SongPageKey.of(catalogVersion.current(), "all", page, size, "popularity", false, NO_FILTER);
+            Page<SongDisplay> songPage = songPageCache.get(key, pageable,
+                    () -> projection
+                            ? songRepository.findAllSongDisplaysByPopularity(pageable)
+                            : toDisplays(songRepository.findAllSongsByPopularity(pageable)),
+                    this::findDisplays);
             if (!songPage.isEmpty()) {
-                return songPage.map(SongMapper.INSTANCE::toDisplay);
+                return songPage;
             } else {
                 throw new NoSongFoundException("No songs exists in the system");
             }
@@ -72,13 +177,12 @@ public class SongServiceImpl implements SongService {
     }
 
     @Override
-    public Page<SongDisplay> getSongs(int page, int size, String sortBy, String sortDirection, String trackName, String artistName, String albumName, String releaseYear, int minPopularity) {
+    @Transactional(readOnly = true)
+    public Page<SongDisplay> getSongs(int page, int size, String sortBy, String sortDirection, String trackName, String artistName, String albumName, String releaseYear, int minPopularity, Long minReach, Long maxReach) {
         logger.info("Getting songs by sort, filter and search");
         try {
-            if (sortBy.equalsIgnoreCase("releasedate")){
-                sortBy = "albumReleaseDate";
-            }
-            Sort sort = Sort.by(sortBy);
+            String metric = METRIC_SORTS.get(sortBy.toLowerCase(Locale.ROOT));
+            Sort sort = metric != null ? JpaSort.unsafe("m." + metric) : Sort.by(sortProperty(sortBy));
             if(sortDirection.equalsIgnoreCase("DESC")){
                 sort = sort.descending();
             }
@@ -86,9 +190,13 @@ public class SongServiceImpl implements SongService {
                 sort = sort.ascending();
             }
             Pageable pageable = PageRequest.of(page-1, size, sort);
-            Page<Song> songPage = songRepository.findSongs(pageable, trackName, artistName, albumName, releaseYear, minPopularity);
+            SongFilter filter = new SongFilter(trackName, artistName, albumName, releaseYear, minPopularity, minReach, maxReach);
+            SongPageKey key = SongPageKey.of(catalogVersion.current(), "search", page, size, sortProperty(sortBy),
+                    !sortDirection.equalsIgnoreCase("DESC"), filter);
+            Page<SongDisplay> songPage = songPageCache.get(key, pageable,
+                    () -> findSongs(pageable, filter, metric != null), this::findDisplays);
             if (!songPage.isEmpty()) {
-                return songPage.map(SongMapper.INSTANCE::toDisplay);
+                return songPage;
             } else {
                 throw new NoSongFoundException("No songs exists in the system");
             }
@@ -99,12 +207,28 @@ public class SongServiceImpl implements SongService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public SongSlice scrollAllSongs(String cursor, int size) {
+        logger.info("Scrolling all songs by popularity");
+        return scroll(cursor, size, "popularity", false, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SongSlice scrollSongs(String cursor, int size, String sortBy, String sortDirection, String trackName, String artistName, String albumName, String releaseYear, int minPopularity) {
+        logger.info("Scrolling songs by sort, filter and search");
+        return scroll(cursor, size, sortProperty(sortBy), !sortDirection.equalsIgnoreCase("DESC"),
+                new SongFilter(trackName, artistName, albumName, releaseYear, minPopularity));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public SongDTO getSongByIsrc(String isrc) {
         logger.info("Getting song by ISRC: {}", isrc);
         try {
-            Optional<Song> songDB = songRepository.findByisrc(isrc);
-            if (songDB.isPresent()) {
-                return SongMapper.INSTANCE.toDTO(songDB.get());
+            SongDTO song = songDetailCache.get(isrc, key -> songRepository.findByisrc(key).map(this::toDetail).orElse(null));
+            if (song != null) {
+                return song;
             } else {
                 throw new SongNotFoundException("song doesn't exist with ISRC: " + isrc);
             }
@@ -114,4 +238,369 @@ public class SongServiceImpl implements SongService {
         }
     }
 
+    /**
+     * Selects only the requested columns, joining songs2024 only for {@code songV2.*} fields. A song
+     * already in the detail cache is projected from there instead.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSongFieldsByIsrc(String isrc, String fields) {
+        logger.info("Getting fields {} of song by ISRC: {}", fields, isrc);
+        SongFields selection = SongFields.parse(fields);
+        SongDTO cached = songDetailCache.getIfPresent(isrc);
+        if (cached != null) {
+            return project(cached, selection);
+        }
+        try {
+            Object[] values = songRepository.findAttributes(isrc, selection.song(), selection.songV2())
+                    .orElseThrow(() -> new SongNotFoundException("song doesn't exist with ISRC: " + isrc));
+            Map<String, Object> song = new LinkedHashMap<>();
+            int column = 0;
+            for (String field : selection.song()) {
+                song.put(field, values[column++]);
+            }
+            if (selection.includesSongV2()) {
+                Map<String, Object> songV2 = new LinkedHashMap<>();
+                for (String field : selection.songV2()) {
+                    songV2.put(field, values[column++]);
+                }
+                song.put("songV2", values[column] == null ? null : songV2);
+            }
+            return song;
+        } catch (DataAccessException e) {
+            logger.error("Database error while fetching song fields by ISRC", e);
+            throw new DatabaseException("Failed to retrieve song by ISRC", e);
+        }
+    }
+
+    /**
+     * Resolves every ISRC the detail cache doesn't hold with one {@code IN} query that fetches
+     * songs2024 in the same statement.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SongLookup<SongDTO> lookupSongs(List<String> isrcs) {
+        logger.info("Looking up {} songs by ISRC", isrcs == null ? 0 : isrcs.size());
+        List<String> requested = lookupIsrcs(isrcs);
+        try {
+            Map<String, SongDTO> found = songDetailCache.getAll(requested, missing -> {
+                Map<String, SongDTO> loaded = new HashMap<>();
+                for (Song song : songRepository.findSongsWithSongV2ByIsrcIn(List.copyOf(missing))) {
+                    loaded.put(song.getIsrc(), toDetail(song));
+                }
+                return loaded;
+            });
+            return inRequestOrder(requested, found);
+        } catch (DataAccessException e) {
+            logger.error("Database error while looking up songs", e);
+            throw new DatabaseException("Failed to look up songs", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SongLookup<SongDisplay> lookupSongDisplays(List<String> isrcs) {
+        logger.info("Looking up {} song displays by ISRC", isrcs == null ? 0 : isrcs.size());
+        List<String> requested = lookupIsrcs(isrcs);
+        try {
+            return inRequestOrder(requested, songPageCache.getDisplayMap(requested, this::findDisplays));
+        } catch (DataAccessException e) {
+            logger.error("Database error while looking up song displays", e);
+            throw new DatabaseException("Failed to look up songs", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SimilarSong> getSimilarSongs(String isrc, int k) {
+        logger.info("Getting {} songs similar to ISRC: {}", k, isrc);
+        if (k < 1 || k > maxSimilar) {
+            throw new InvalidQueryException("k must be between 1 and " + maxSimilar);
+        }
+        if (similarityIndex == null || !songCatalog.isLoaded()) {
+            throw new ServiceUnavailableException("Similarity search is not available");
+        }
+        int ordinal = songCatalog.ordinalOf(isrc);
+        if (ordinal < 0) {
+            throw new SongNotFoundException("song doesn't exist with ISRC: " + isrc);
+        }
+        List<SongSimilarityIndex.Neighbour> neighbours = similarityIndex.nearest(ordinal, k);
+        try {
+            List<SongDisplay> songs = songPageCache.getDisplays(
+                    neighbours.stream().map(neighbour -> songCatalog.isrcOf(neighbour.ordinal())).toList(), this::findDisplays);
+            if (songs == null) {
+                throw new NoSongFoundException("Similar songs no longer exist");
+            }
+            List<SimilarSong> similar = new ArrayList<>(songs.size());
+            for (int i = 0; i < songs.size(); i++) {
+                similar.add(new SimilarSong(songs.get(i), neighbours.get(i).distance()));
+            }
+            return similar;
+        } catch (DataAccessException e) {
+            logger.error("Database error while fetching similar songs", e);
+            throw new DatabaseException("Failed to retrieve similar songs", e);
+        }
+    }
+
+    /**
+     * Ranked by the relevance index; as with facets, only displays missing from the cache are read.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ScoredSong> searchSongs(String query, int page, int size, boolean fuzzy) {
+        logger.info("Searching songs by relevance: {}", query);
+        if (query == null || query.isBlank()) {
+            throw new InvalidQueryException("q must not be blank");
+        }
+        if (page < 1 || size < 1 || (long) page * size > maxSearchResults) {
+            throw new InvalidQueryException("page and size must be positive and reach at most " + maxSearchResults + " results");
+        }
+        if (relevanceIndex == null || !songCatalog.isLoaded()) {
+            throw new ServiceUnavailableException("Relevance search is not available");
+        }
+        List<RelevanceIndex.Hit> hits = relevanceIndex.search(query, page * size, fuzzy);
+        hits = hits.subList(Math.min((page - 1) * size, hits.size()), hits.size());
+        List<String> isrcs = hits.stream().map(hit -> songCatalog.isrcOf(hit.ordinal())).toList();
+        try {
+            Map<String, SongDisplay> found = songPageCache.getDisplayMap(isrcs, this::findDisplaysReadOnly);
+            List<ScoredSong> songs = new ArrayList<>(hits.size());
+            for (int i = 0; i < hits.size(); i++) {
+                SongDisplay song = found.get(isrcs.get(i));
+                if (song != null) {
+                    songs.add(new ScoredSong(song, hits.get(i).score()));
+                }
+            }
+            return songs;
+        } catch (DataAccessException e) {
+            logger.error("Database error while fetching search results", e);
+            throw new DatabaseException("Failed to retrieve songs", e);
+        }
+    }
+
+    /**
+     * Answered from the facet index; only displays missing from the cache are read, in a transaction
+     * of their own, so a fully cached page never takes a connection or a database permit.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FacetedSongs getFacetedSongs(int page, int size, String genres, String genreMode, String releaseYear, Integer minPopularity, int facets) {
+        logger.info("Getting songs by genre facets: {} ({})", genres, genreMode);
+        if (page < 1 || size < 1) {
+            throw new InvalidQueryException("page and size must be positive");
+        }
+        if (facets < 1 || facets > maxFacets) {
+            throw new InvalidQueryException("facets must be between 1 and " + maxFacets);
+        }
+        boolean allGenres = switch (genreMode.toLowerCase(Locale.ROOT)) {
+            case "any" -> false;
+            case "all" -> true;
+            default -> throw new InvalidQueryException("genremode must be any or all");
+        };
+        if (releaseYear != null && !releaseYear.matches("\\d{4}")) {
+            throw new InvalidQueryException("releaseyear must be a four-digit year");
+        }
+        if (facetIndex == null || !songCatalog.isLoaded()) {
+            throw new ServiceUnavailableException("Genre facets are not available");
+        }
+        List<String> genreNames = genres == null ? List.of()
+                : Arrays.stream(genres.split(",")).map(String::trim).filter(genre -> !genre.isEmpty()).toList();
+        GenreFacetIndex.Result result = facetIndex.query(new GenreFacetIndex.Query(genreNames, allGenres,
+                releaseYear == null ? null : Integer.valueOf(releaseYear), minPopularity, (long) (page - 1) * size, size, facets));
+        List<String> isrcs = new ArrayList<>(result.ordinals().length);
+        for (int ordinal : result.ordinals()) {
+            isrcs.add(songCatalog.isrcOf(ordinal));
+        }
+        try {
+            Map<String, SongDisplay> found = songPageCache.getDisplayMap(isrcs, this::findDisplaysReadOnly);
+            return FacetedSongs.builder()
+                    .songs(isrcs.stream().map(found::get).filter(song -> song != null).toList())
+                    .page(page)
+                    .size(size)
+                    .totalElements(result.total())
+                    .genres(result.genres())
+                    .years(result.years())
+                    .build();
+        } catch (DataAccessException e) {
+            logger.error("Database error while fetching faceted songs", e);
+            throw new DatabaseException("Failed to retrieve songs", e);
+        }
+    }
+
+    /**
+     * Keyset pagination: seeks past the (sort key, ISRC) of the previous slice instead of using an
+     * OFFSET, and fetches one extra row to detect a next slice rather than running a count query. In
+     * projection mode only the display columns and the sort key are selected.
+     */
+    private SongSlice scroll(String token, int size, String sortBy, boolean ascending, SongFilter filter) {
+        if (size < 1) {
+            throw new InvalidQueryException("Size must be at least 1");
+        }
+        SongCursor after = token.isEmpty() ? null : SongCursor.decode(token);
+        if (after != null && (!after.sortBy().equals(sortBy) || after.ascending() != ascending)) {
+            throw new InvalidQueryException("Cursor was issued for a different sort order");
+        }
+        try {
+            String lastValue = after == null ? null : after.lastValue();
+            String lastIsrc = after == null ? null : after.lastIsrc();
+            List<KeyedSongDisplay> songs = projection
+                    ? songRepository.findSongDisplaysAfter(filter, sortBy, ascending, lastValue, lastIsrc, size + 1)
+                    : keyed(songRepository.findSongsAfter(filter, sortBy, ascending, lastValue, lastIsrc, size + 1), sortBy);
+            if (songs.isEmpty() && after == null) {
+                throw new NoSongFoundException("No songs exists in the system");
+            }
+            boolean hasNext = songs.size() > size;
+            List<KeyedSongDisplay> content = hasNext ? songs.subList(0, size) : songs;
+            String nextCursor = null;
+            if (hasNext) {
+                KeyedSongDisplay last = content.get(size - 1);
+                nextCursor = new SongCursor(sortBy, ascending, last.sortKey() == null ? null : last.sortKey().toString(),
+                        last.song().getIsrc()).encode();
+            }
+            return SongSlice.builder()
+                    .content(content.stream().map(KeyedSongDisplay::song).toList())
+                    .size(size)
+                    .hasNext(hasNext)
+                    .nextCursor(nextCursor)
+                    .build();
+        } catch (DataAccessException e) {
+            logger.error("Database error while scrolling songs", e);
+            throw new DatabaseException("Failed to retrieve songs", e);
+        }
+    }
+
+    /**
+     * Trimmed, non-blank ISRCs in request order with duplicates dropped.
+     */
+    private List<String> lookupIsrcs(List<String> isrcs) {
+        if (isrcs == null || isrcs.isEmpty()) {
+            throw new InvalidQueryException("isrcs must list at least one ISRC");
+        }
+        if (isrcs.size() > maxLookup) {
+            throw new InvalidQueryException("At most " + maxLookup + " ISRCs can be looked up at once");
+        }
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        for (String isrc : isrcs) {
+            if (isrc != null && !isrc.isBlank()) {
+                unique.add(isrc.trim());
+            }
+        }
+        return new ArrayList<>(unique);
+    }
+
+    private static <T> SongLookup<T> inRequestOrder(List<String> isrcs, Map<String, T> found) {
+        List<T> songs = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String isrc : isrcs) {
+            T song = found.get(isrc);
+            if (song == null) {
+                missing.add(isrc);
+            } else {
+                songs.add(song);
+            }
+        }
+        return new SongLookup<>(songs, missing);
+    }
+
+    /**
+     * {@link #findDisplays} in a read-only transaction of its own, for callers that run outside one.
+     */
+    private List<SongDisplay> findDisplaysReadOnly(Collection<String> isrcs) {
+        return readOnlyTransaction.execute(status -> findDisplays(isrcs));
+    }
+
+    private List<SongDisplay> findDisplays(Collection<String> isrcs) {
+        if (projection) {
+            return songRepository.findSongDisplaysByIsrcIn(isrcs);
+        }
+        return toDisplays(songRepository.findAllById(isrcs));
+    }
+
+    private static Map<String, Object> project(SongDTO song, SongFields selection) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        BeanWrapperImpl source = new BeanWrapperImpl(song);
+        for (String field : selection.song()) {
+            projected.put(field, source.getPropertyValue(field));
+        }
+        if (selection.includesSongV2()) {
+            Map<String, Object> songV2 = null;
+            if (song.getSongV2() != null) {
+                BeanWrapperImpl sourceV2 = new BeanWrapperImpl(song.getSongV2());
+                songV2 = new LinkedHashMap<>();
+                for (String field : selection.songV2()) {
+                    songV2.put(field, sourceV2.getPropertyValue(field));
+                }
+            }
+            projected.put("songV2", songV2);
+        }
+        return projected;
+    }
+
+    private static String sortProperty(String sortBy) {
+        return sortBy.equalsIgnoreCase("releasedate") ? "albumReleaseDate" : sortBy;
+    }
+
+    /**
+     * Answers the filter from the in-memory search engine when one is configured and able to, so the
+     * database only hydrates the matched ISRCs; otherwise runs the {@code LIKE} query. In projection
+     * mode only the display columns are selected instead of whole entities. Reach bounds and metric
+     * sorts are resolved against the indexed {@code song_metrics} columns.
+     */
+    private Page<SongDisplay> findSongs(Pageable pageable, SongFilter filter, boolean sortByMetric) {
+        if (sortByMetric || filter.hasReachBounds()) {
+            if (projection) {
+                return songRepository.findSongDisplaysWithMetrics(pageable, filter.trackName(), filter.artistName(),
+                        filter.albumName(), filter.releaseYear(), filter.minPopularity(), filter.minReach(), filter.maxReach());
+            }
+            return toDisplays(songRepository.findSongsWithMetrics(pageable, filter.trackName(), filter.artistName(), filter.albumName(),
+                    filter.releaseYear(), filter.minPopularity(), filter.minReach(), filter.maxReach()));
+        }
+        if (searchEngine != null) {
+            Optional<List<String>> isrcs = searchEngine.findIsrcs(filter);
+            if (isrcs.isPresent()) {
+                List<String> matches = isrcs.get();
+                if (matches.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+                List<SongDisplay> content = projection
+                        ? songRepository.findSongDisplaysByIsrcIn(matches, pageable)
+                        : toDisplays(songRepository.findSongsByIsrcIn(matches, pageable));
+                return new PageImpl<>(content, pageable, matches.size());
+            }
+        }
+        if (projection) {
+            return songRepository.findSongDisplays(pageable, filter.trackName(), filter.artistName(), filter.albumName(),
+                    filter.releaseYear(), filter.minPopularity());
+        }
+        return toDisplays(songRepository.findSongs(pageable, filter.trackName(), filter.artistName(), filter.albumName(),
+                filter.releaseYear(), filter.minPopularity()));
+    }
+
+    private Page<SongDisplay> toDisplays(Page<Song> songs) {
+        return displayMapping.record(() -> songs.map(SongMapper.INSTANCE::toDisplay));
+    }
+
+    private List<KeyedSongDisplay> keyed(List<Song> songs, String sortBy) {
+        return displayMapping.record(() -> songs.stream()
+                .map(song -> new KeyedSongDisplay(SongMapper.INSTANCE.toDisplay(song), new BeanWrapperImpl(song).getPropertyValue(sortBy)))
+                .toList());
+    }
+
+    private List<SongDisplay> toDisplays(List<Song> songs) {
+        return displayMapping.record(() -> songs.stream().map(SongMapper.INSTANCE::toDisplay).toList());
+    }
+
+    /**
+     * Includes the lazy {@code songV2} load when the song has songs2024 data.
+     */
+    private SongDTO toDetail(Song song) {
+        return detailMapping.record(() -> SongMapper.INSTANCE.toDTO(song));
+    }
+
+    private static Timer mappingTimer(MeterRegistry registry, String target) {
+        return Timer.builder("spotifo.mapping")
+                .description("Time to map loaded entities to response DTOs")
+                .tag("target", target)
+                .register(registry);
+    }
+
 }
@@ -0,0 +1,11 @@
+package songservice.service;
+
+import songservice.dto.CatalogStats;
+
+public interface StatisticsService {
+
+    /**
+     * Catalog-wide statistics, listing the {@code top} most frequent genres and labels.
+     */
+    CatalogStats getStatistics(int top);
+}
@@ -0,0 +1,41 @@
+package songservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import songservice.catalog.SongCatalog;
+import songservice.dto.CatalogStats;
+import songservice.exception.InvalidQueryException;
+import songservice.exception.ServiceUnavailableException;
+import songservice.stats.CatalogStatistics;
+
+@Service
+public class StatisticsServiceImpl implements StatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsServiceImpl.class);
+    private final CatalogStatistics catalogStatistics;
+    private final SongCatalog songCatalog;
+    private final int maxTop;
+
+    @Autowired
+    public StatisticsServiceImpl(CatalogStatistics catalogStatistics, SongCatalog songCatalog,
+                                 @Value("${spotifo.stats.max-top:100}") int maxTop) {
+        this.catalogStatistics = catalogStatistics;
+        this.songCatalog = songCatalog;
+        this.maxTop = maxTop;
+    }
+
+    @Override
+    public CatalogStats getStatistics(int top) {
+        logger.info("Getting catalog statistics");
+        if (top < 1 || top > maxTop) {
+            throw new InvalidQueryException("top must be between 1 and " + maxTop);
+        }
+        if (!songCatalog.isLoaded()) {
+            throw new ServiceUnavailableException("Catalog statistics are still being computed");
+        }
+        return catalogStatistics.report(top);
+    }
+}
@@ -0,0 +1,14 @@
+package songservice.service;
+
+import songservice.dto.Suggestion;
+
+import java.util.List;
+
+public interface SuggestionService {
+
+    /**
+     * Track, artist or album names starting with {@code query}, most popular first. An empty
+     * {@code type} suggests all three kinds.
+     */
+    List<Suggestion> suggest(String query, String type, int limit);
+}
@@ -0,0 +1,52 @@
+package songservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import songservice.catalog.SongCatalog;
+import songservice.dto.Suggestion;
+import songservice.exception.InvalidQueryException;
+import songservice.exception.ServiceUnavailableException;
+import songservice.suggest.SuggestionIndex;
+
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionServiceImpl.class);
+    private final SuggestionIndex suggestionIndex;
+    private final SongCatalog songCatalog;
+    private final int maxLimit;
+
+    @Autowired
+    public SuggestionServiceImpl(SuggestionIndex suggestionIndex, SongCatalog songCatalog,
+                                 @Value("${spotifo.suggest.max-limit:20}") int maxLimit) {
+        this.suggestionIndex = suggestionIndex;
+        this.songCatalog = songCatalog;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public List<Suggestion> suggest(String query, String type, int limit) {
+        logger.debug("Suggesting names for: {}", query);
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidQueryException("Limit must be between 1 and " + maxLimit);
+        }
+        Suggestion.Type kind = null;
+        if (!type.isEmpty()) {
+            try {
+                kind = Suggestion.Type.valueOf(type.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidQueryException("Unknown suggestion type: " + type);
+            }
+        }
+        if (!songCatalog.isLoaded()) {
+            throw new ServiceUnavailableException("Suggestions are not available yet");
+        }
+        return suggestionIndex.suggest(query, kind, limit);
+    }
+}
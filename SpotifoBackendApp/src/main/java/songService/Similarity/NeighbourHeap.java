@@ -0,0 +1,68 @@
+package songservice.similarity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bounded max-heap of squared distances, so the current k-th best is at the root and most candidates
+ * are rejected with a single comparison.
+ */
+class NeighbourHeap {
+
+    private final int[] ordinals;
+    private final float[] distances;
+    private int size;
+
+    NeighbourHeap(int capacity) {
+        this.ordinals = new int[capacity];
+        this.distances = new float[capacity];
+    }
+
+    float worst() {
+        return size < distances.length ? Float.POSITIVE_INFINITY : distances[0];
+    }
+
+    void offer(int ordinal, float distance) {
+        if (size < distances.length) {
+            int i = size++;
+            while (i > 0 && distances[(i - 1) / 2] < distance) {
+                int parent = (i - 1) / 2;
+                ordinals[i] = ordinals[parent];
+                distances[i] = distances[parent];
+                i = parent;
+            }
+            ordinals[i] = ordinal;
+            distances[i] = distance;
+        } else if (distance < distances[0]) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && distances[child + 1] > distances[child]) {
+                    child++;
+                }
+                if (distances[child] <= distance) {
+                    break;
+                }
+                ordinals[i] = ordinals[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            ordinals[i] = ordinal;
+            distances[i] = distance;
+        }
+    }
+
+    List<SongSimilarityIndex.Neighbour> sorted() {
+        List<SongSimilarityIndex.Neighbour> neighbours = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            neighbours.add(new SongSimilarityIndex.Neighbour(ordinals[i], (float) Math.sqrt(distances[i])));
+        }
+        neighbours.sort(Comparator.comparingDouble(SongSimilarityIndex.Neighbour::distance)
+                .thenComparingInt(SongSimilarityIndex.Neighbour::ordinal));
+        return neighbours;
+    }
+}
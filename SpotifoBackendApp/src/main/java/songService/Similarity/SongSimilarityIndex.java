@@ -0,0 +1,259 @@
+package songservice.similarity;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import songservice.catalog.CatalogIndex;
+import songservice.entity.Song;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Exact k-nearest-neighbour search over the audio features of every song. Each feature is scaled to
+ * [0, 1] with a fixed range, and songs are bucketed into a fixed grid over the most discriminating
+ * features: key and mode by value, danceability, energy, valence and acousticness by quarter. A query
+ * scans its own cell first, then only the cells whose box could still hold something closer than the
+ * current k-th neighbour, nearest box first, so the result is the same as a brute-force scan while a
+ * large catalog is mostly skipped.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spotifo.similarity", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SongSimilarityIndex implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongSimilarityIndex.class);
+    // danceability, energy, key, loudness, mode, speechiness, acousticness, instrumentalness,
+    // liveness, valence, tempo, time signature
+    private static final float[] MIN = {0, 0, 0, -60, 0, 0, 0, 0, 0, 0, 0, 3};
+    private static final float[] MAX = {1, 1, 11, 0, 1, 1, 1, 1, 1, 1, 250, 7};
+    static final int FEATURES = MIN.length;
+    // The features the grid splits on, and into how many equal bins each: one per key and per mode
+    private static final int[] GRID_FEATURES = {2, 4, 0, 1, 9, 6};
+    private static final int[] GRID_BINS = {12, 2, 4, 4, 4, 4};
+    private static final int CELLS = Arrays.stream(GRID_BINS).reduce(1, (a, b) -> a * b);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Cell[] cells = new Cell[CELLS];
+    // Each song's cell and slot in it; -1 for songs without audio features
+    private int[] cellOf = new int[0];
+    private int[] slotOf = new int[0];
+    private int size;
+
+    @Override
+    public void add(int ordinal, Song song) {
+        float[] row = row(song);
+        lock.writeLock().lock();
+        try {
+            if (ordinal >= cellOf.length) {
+                int capacity = Math.max(Math.max(ordinal + 1, cellOf.length * 2), 1024);
+                int from = cellOf.length;
+                cellOf = Arrays.copyOf(cellOf, capacity);
+                slotOf = Arrays.copyOf(slotOf, capacity);
+                Arrays.fill(cellOf, from, capacity, -1);
+            }
+            if (cellOf[ordinal] >= 0) {
+                remove(ordinal);
+            }
+            if (row != null) {
+                int cell = cellOf(row);
+                if (cells[cell] == null) {
+                    cells[cell] = new Cell(cell);
+                }
+                cellOf[ordinal] = cell;
+                slotOf[ordinal] = cells[cell].append(ordinal, row);
+            }
+            size = Math.max(size, ordinal + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} songs closest to the given one, nearest first, excluding the song itself. Songs
+     * without any audio features are neither matched nor searchable.
+     */
+    public List<Neighbour> nearest(int ordinal, int k) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            if (ordinal >= size || cellOf[ordinal] < 0) {
+                return List.of();
+            }
+            Cell own = cells[cellOf[ordinal]];
+            float[] query = Arrays.copyOfRange(own.features, slotOf[ordinal] * FEATURES, (slotOf[ordinal] + 1) * FEATURES);
+            NeighbourHeap heap = new NeighbourHeap(k);
+            own.scan(query, ordinal, heap);
+            int scanned = own.size;
+
+            float[][] gaps = gaps(query);
+            long[] candidates = new long[CELLS];
+            int count = 0;
+            for (Cell cell : cells) {
+                if (cell == null || cell == own || cell.size == 0) {
+                    continue;
+                }
+                float bound = cell.bound(gaps);
+                if (bound < heap.worst()) {
+                    // Non-negative floats order like their bits
+                    candidates[count++] = (long) Float.floatToIntBits(bound) << 32 | cell.index;
+                }
+            }
+            Arrays.sort(candidates, 0, count);
+            for (int i = 0; i < count; i++) {
+                if (Float.intBitsToFloat((int) (candidates[i] >>> 32)) >= heap.worst()) {
+                    break;
+                }
+                Cell cell = cells[(int) candidates[i]];
+                cell.scan(query, ordinal, heap);
+                scanned += cell.size;
+            }
+            List<Neighbour> neighbours = heap.sorted();
+            logger.debug("Scanned {} of {} songs for {} neighbours in {} µs", scanned, size, k, (System.nanoTime() - start) / 1_000);
+            return neighbours;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remove(int ordinal) {
+        Cell cell = cells[cellOf[ordinal]];
+        int moved = cell.removeAt(slotOf[ordinal]);
+        if (moved >= 0) {
+            slotOf[moved] = slotOf[ordinal];
+        }
+        cellOf[ordinal] = -1;
+    }
+
+    private static int cellOf(float[] row) {
+        int cell = 0;
+        for (int d = 0; d < GRID_FEATURES.length; d++) {
+            cell = cell * GRID_BINS[d] + bin(row[GRID_FEATURES[d]], GRID_BINS[d]);
+        }
+        return cell;
+    }
+
+    private static int bin(float value, int bins) {
+        return Math.min(bins - 1, (int) (value * bins));
+    }
+
+    /**
+     * For each grid feature and bin, the least squared distance from the query to any value in the bin.
+     */
+    private static float[][] gaps(float[] query) {
+        float[][] gaps = new float[GRID_FEATURES.length][];
+        for (int d = 0; d < GRID_FEATURES.length; d++) {
+            int bins = GRID_BINS[d];
+            float value = query[GRID_FEATURES[d]];
+            int own = bin(value, bins);
+            gaps[d] = new float[bins];
+            for (int b = 0; b < bins; b++) {
+                float gap = b < own ? value - (float) (b + 1) / bins : b > own ? (float) b / bins - value : 0f;
+                gaps[d][b] = gap * gap;
+            }
+        }
+        return gaps;
+    }
+
+    /**
+     * @return the song's normalized features, or {@code null} if it has none
+     */
+    static float[] row(Song song) {
+        Double[] features = {song.getDanceability(), song.getEnergy(), toDouble(song.getKey()), song.getLoudness(),
+                toDouble(song.getMode()), song.getSpeechiness(), song.getAcousticness(), song.getInstrumentalness(),
+                song.getLiveness(), song.getValence(), song.getTempo(), toDouble(song.getTimeSignature())};
+        float[] row = new float[FEATURES];
+        boolean any = false;
+        for (int feature = 0; feature < FEATURES; feature++) {
+            row[feature] = normalize(feature, features[feature]);
+            any |= features[feature] != null;
+        }
+        return any ? row : null;
+    }
+
+    private static float normalize(int feature, Double value) {
+        if (value == null) {
+            return 0.5f;
+        }
+        float scaled = (value.floatValue() - MIN[feature]) / (MAX[feature] - MIN[feature]);
+        return Math.min(1f, Math.max(0f, scaled));
+    }
+
+    private static Double toDouble(Integer value) {
+        return value == null ? null : value.doubleValue();
+    }
+
+    /**
+     * The songs of one grid cell, their features stored row by row.
+     */
+    private static final class Cell {
+
+        private final int index;
+        private final int[] bins = new int[GRID_FEATURES.length];
+        private int[] ordinals = new int[16];
+        private float[] features = new float[16 * FEATURES];
+        private int size;
+
+        private Cell(int index) {
+            this.index = index;
+            for (int d = GRID_FEATURES.length - 1, rest = index; d >= 0; d--) {
+                bins[d] = rest % GRID_BINS[d];
+                rest /= GRID_BINS[d];
+            }
+        }
+
+        int append(int ordinal, float[] row) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                features = Arrays.copyOf(features, size * 2 * FEATURES);
+            }
+            ordinals[size] = ordinal;
+            System.arraycopy(row, 0, features, size * FEATURES, FEATURES);
+            return size++;
+        }
+
+        /**
+         * Moves the last song into the freed slot.
+         *
+         * @return the ordinal of the song moved, or -1 if the removed one was last
+         */
+        int removeAt(int slot) {
+            int last = --size;
+            if (slot == last) {
+                return -1;
+            }
+            ordinals[slot] = ordinals[last];
+            System.arraycopy(features, last * FEATURES, features, slot * FEATURES, FEATURES);
+            return ordinals[slot];
+        }
+
+        float bound(float[][] gaps) {
+            float bound = 0;
+            for (int d = 0; d < bins.length; d++) {
+                bound += gaps[d][bins[d]];
+            }
+            return bound;
+        }
+
+        void scan(float[] query, int exclude, NeighbourHeap heap) {
+            for (int i = 0, offset = 0; i < size; i++, offset += FEATURES) {
+                float distance = 0;
+                for (int feature = 0; feature < FEATURES; feature++) {
+                    float difference = features[offset + feature] - query[feature];
+                    distance += difference * difference;
+                }
+                if (distance < heap.worst() && ordinals[i] != exclude) {
+                    heap.offer(ordinals[i], distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * A match and its Euclidean distance in the normalized feature space.
+     */
+    public record Neighbour(int ordinal, float distance) {
+    }
+}
@@ -0,0 +1,283 @@
+package songservice.snapshot;
+
+import songservice.catalog.SongETags;
+import songservice.dto.SongDTO;
+import songservice.dto.SongDisplay;
+import songservice.dto.SongMapper;
+import songservice.entity.Song;
+import songservice.repository.JdbcTableMapping;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static songservice.repository.SongJdbcRepository.SONGS;
+import static songservice.repository.SongJdbcRepository.SONGS_V2;
+
+/**
+ * Read-only view of a catalog snapshot file, mapped into memory so opening it costs no more than
+ * reading the header and every lookup reads the page cache directly.
+ * <p>
+ * Layout (little-endian, sections 8-byte aligned): a header; a bitmap of the rows that have a
+ * songs2024 row; every row's {@link SongETags#contentHash content hash}, so a row is only served
+ * while it is the content the song's tag stands for; for every songs2025 column and every songs2024 column after its ISRC, a bitmap of
+ * non-null rows followed by one fixed-width value per row (4-byte ints and string references, 8-byte
+ * longs and doubles); an open-addressing ISRC table of row + 1 per slot; and a heap of
+ * length-prefixed UTF-8 strings, each distinct string stored once. Rows are in {@code GET /songs}
+ * order, so a page of it is a contiguous range of rows. Columns come from the entity mappings, and a
+ * file written for a different mapping is rejected when opened.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x53504e53;
+    static final int FORMAT = 2;
+    static final int HEADER_BYTES = 48;
+    // One mapping, addressed by int
+    static final long MAX_LENGTH = Integer.MAX_VALUE;
+    static final List<Column> COLUMNS = columns();
+    static final long LAYOUT = layoutHash();
+
+    private static final int ISRC = SONGS.indexOf("ISRC");
+    private static final int TRACK_NAME = SONGS.indexOf("Track Name");
+    private static final int ARTIST_NAMES = SONGS.indexOf("Artist Name(s)");
+    private static final int ARTIST_URIS = SONGS.indexOf("Artist URI(s)");
+    private static final int ALBUM_NAME = SONGS.indexOf("Album Name");
+    private static final int ALBUM_URI = SONGS.indexOf("Album URI");
+    private static final int ALBUM_IMAGE_URL = SONGS.indexOf("Album Image URL");
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final int slots;
+    private final long createdAt;
+    private final Layout layout;
+
+    private CatalogSnapshot(ByteBuffer buffer, Path path) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IOException("Not a catalog snapshot: " + path);
+        }
+        if (buffer.getLong(8) != LAYOUT) {
+            throw new IOException("Catalog snapshot " + path + " was written for different entity mappings");
+        }
+        this.createdAt = buffer.getLong(16);
+        this.rows = buffer.getInt(24);
+        this.slots = buffer.getInt(28);
+        this.layout = new Layout(rows, slots);
+        if (buffer.getLong(40) != buffer.capacity() || buffer.getLong(32) != layout.heap) {
+            throw new IOException("Catalog snapshot " + path + " is truncated");
+        }
+    }
+
+    /**
+     * Maps the file read-only; the mapping outlives the channel and is released once unreachable.
+     */
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > MAX_LENGTH) {
+                throw new IOException("Not a catalog snapshot: " + path);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+            return new CatalogSnapshot(buffer, path);
+        }
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Epoch millis at which the snapshot's rows were read from the database.
+     */
+    public long createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return the {@link SongETags#contentHash content hash} of the row as it was written
+     */
+    public int contentHash(int row) {
+        return buffer.getInt(offset(layout.contentHashes + 4L * row));
+    }
+
+    /**
+     * @return the song's row, or -1 when the snapshot doesn't hold it
+     */
+    public int rowOf(String isrc) {
+        byte[] key = isrc.getBytes(StandardCharsets.UTF_8);
+        int mask = slots - 1;
+        for (int slot = slot(isrc.hashCode(), mask); ; slot = (slot + 1) & mask) {
+            int entry = buffer.getInt(offset(layout.hash + 4L * slot));
+            if (entry == 0) {
+                return -1;
+            }
+            if (stringEquals(ISRC, entry - 1, key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    public SongDisplay display(int row) {
+        return SongDisplay.builder()
+                .isrc(string(ISRC, row))
+                .trackName(string(TRACK_NAME, row))
+                .artistNames(string(ARTIST_NAMES, row))
+                .artistUris(string(ARTIST_URIS, row))
+                .albumName(string(ALBUM_NAME, row))
+                .albumUri(string(ALBUM_URI, row))
+                .albumImageUrl(string(ALBUM_IMAGE_URL, row))
+                .build();
+    }
+
+    /**
+     * The same DTO {@code GET /song/{isrc}} maps from the database, songs2024 included.
+     */
+    public SongDTO song(int row) {
+        int songColumns = SONGS.columns().size();
+        Object[] values = new Object[songColumns];
+        for (int column = 0; column < songColumns; column++) {
+            values[column] = value(column, row);
+        }
+        Song song = SONGS.toEntity(values);
+        if (bit(layout.songV2, row)) {
+            Object[] songV2 = new Object[SONGS_V2.columns().size()];
+            songV2[0] = values[ISRC];
+            for (int column = 1; column < songV2.length; column++) {
+                songV2[column] = value(songColumns + column - 1, row);
+            }
+            song.setSongV2(SONGS_V2.toEntity(songV2));
+        }
+        return SongMapper.INSTANCE.toDTO(song);
+    }
+
+    private Object value(int column, int row) {
+        if (!bit(layout.presence[column], row)) {
+            return null;
+        }
+        Column type = COLUMNS.get(column);
+        long at = layout.values[column] + (long) type.width() * row;
+        if (type.javaType() == String.class) {
+            return string(column, row);
+        }
+        if (type.javaType() == Integer.class) {
+            return buffer.getInt(offset(at));
+        }
+        if (type.javaType() == Long.class) {
+            return buffer.getLong(offset(at));
+        }
+        return Double.longBitsToDouble(buffer.getLong(offset(at)));
+    }
+
+    private String string(int column, int row) {
+        if (!bit(layout.presence[column], row)) {
+            return null;
+        }
+        int entry = offset(layout.heap + buffer.getInt(offset(layout.values[column] + 4L * row)));
+        byte[] bytes = new byte[buffer.getInt(entry)];
+        buffer.get(entry + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean stringEquals(int column, int row, byte[] key) {
+        int entry = offset(layout.heap + buffer.getInt(offset(layout.values[column] + 4L * row)));
+        if (buffer.getInt(entry) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(entry + 4 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean bit(long bitmap, int row) {
+        return (buffer.getLong(offset(bitmap + 8L * (row >>> 6))) >>> (row & 63) & 1) != 0;
+    }
+
+    private static int offset(long position) {
+        return (int) position;
+    }
+
+    static int slot(int hash, int mask) {
+        int mixed = hash * 0x9E3779B9;
+        return (mixed ^ mixed >>> 16) & mask;
+    }
+
+    /**
+     * songs2025 columns, then songs2024 columns without the ISRC both tables share.
+     */
+    private static List<Column> columns() {
+        List<Column> columns = new ArrayList<>();
+        addColumns(columns, SONGS, 0);
+        addColumns(columns, SONGS_V2, 1);
+        return List.copyOf(columns);
+    }
+
+    private static void addColumns(List<Column> columns, JdbcTableMapping<?> mapping, int from) {
+        for (int i = from; i < mapping.columns().size(); i++) {
+            Class<?> type = mapping.columnType(i);
+            int width = type == String.class || type == Integer.class ? 4 : 8;
+            if (type != String.class && type != Integer.class && type != Long.class && type != Double.class) {
+                throw new IllegalStateException("Unsupported column type " + type);
+            }
+            columns.add(new Column(mapping.table() + "." + mapping.columns().get(i), type, width));
+        }
+    }
+
+    /**
+     * FNV-1a over the format version and every column's name and type.
+     */
+    private static long layoutHash() {
+        StringBuilder description = new StringBuilder().append(FORMAT);
+        COLUMNS.forEach(column -> description.append('|').append(column.name()).append(':').append(column.javaType().getSimpleName()));
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : description.toString().getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    record Column(String name, Class<?> javaType, int width) {
+    }
+
+    /**
+     * Section offsets, which follow from the row and slot counts alone.
+     */
+    static final class Layout {
+
+        final long songV2;
+        final long contentHashes;
+        final long[] presence = new long[COLUMNS.size()];
+        final long[] values = new long[COLUMNS.size()];
+        final long hash;
+        final long heap;
+
+        Layout(int rows, int slots) {
+            long bitmapBytes = 8L * ((rows + 63) / 64);
+            long position = HEADER_BYTES;
+            songV2 = position;
+            position += bitmapBytes;
+            contentHashes = position;
+            position = align(position + 4L * rows);
+            for (int column = 0; column < COLUMNS.size(); column++) {
+                presence[column] = position;
+                position += bitmapBytes;
+                values[column] = position;
+                position = align(position + (long) COLUMNS.get(column).width() * rows);
+            }
+            hash = position;
+            heap = align(position + 4L * slots);
+        }
+
+        static long align(long position) {
+            return (position + 7) & ~7L;
+        }
+    }
+}
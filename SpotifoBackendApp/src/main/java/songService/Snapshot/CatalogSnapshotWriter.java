@@ -0,0 +1,228 @@
+package songservice.snapshot;
+
+import songservice.catalog.SongETags;
+import songservice.entity.Song;
+import songservice.entity.SongV2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static songservice.repository.SongJdbcRepository.SONGS;
+import static songservice.repository.SongJdbcRepository.SONGS_V2;
+
+/**
+ * Writes songs in the {@link CatalogSnapshot} format as they are added, without holding the catalog
+ * in memory. The fixed-width sections follow from the row count alone, so they are mapped up front
+ * and every row's values are stored straight into them; strings are appended to the heap at the end
+ * of the file. Songs must be added in {@code GET /songs} order with songs2024 already loaded, exactly
+ * as many as announced.
+ * <p>
+ * Writes go to a temporary file that {@link #commit} moves over {@code path} atomically, so readers
+ * opening {@code path} never see a partial snapshot and a snapshot already mapped from it stays
+ * valid; closing the writer without committing deletes the temporary file.
+ */
+public final class CatalogSnapshotWriter implements Closeable {
+
+    private static final List<CatalogSnapshot.Column> COLUMNS = CatalogSnapshot.COLUMNS;
+    // Repeated strings (artists, albums, labels, genres) are stored once; beyond this many distinct
+    // ones, new strings are stored without being remembered, so memory stays bounded
+    private static final int MAX_INTERNED = 1 << 20;
+
+    private final Path path;
+    private final Path temp;
+    private final FileChannel channel;
+    private final MappedByteBuffer sections;
+    private final CatalogSnapshot.Layout layout;
+    private final int rows;
+    private final int slots;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final ByteBuffer heap = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+    private long heapSize;
+    private long heapFlushed;
+    private int added;
+    private boolean committed;
+
+    /**
+     * @throws SnapshotTooLargeException if {@code rows} songs can't fit one file whatever their strings
+     */
+    public CatalogSnapshotWriter(Path path, long rows) throws IOException {
+        int slots = slots(rows);
+        if (rows > Integer.MAX_VALUE / 2 || new CatalogSnapshot.Layout((int) rows, slots).heap > CatalogSnapshot.MAX_LENGTH) {
+            throw new SnapshotTooLargeException("A catalog of " + rows + " songs is too large for one snapshot file");
+        }
+        this.path = path;
+        this.temp = path.resolveSibling(path.getFileName() + ".tmp");
+        this.rows = (int) rows;
+        this.slots = slots;
+        this.layout = new CatalogSnapshot.Layout(this.rows, slots);
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            this.sections = channel.map(FileChannel.MapMode.READ_WRITE, 0, layout.heap);
+            this.sections.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return added;
+    }
+
+    /**
+     * @throws SnapshotTooLargeException once the strings outgrow what one file can map
+     * @throws IllegalStateException past the announced number of songs
+     */
+    public void add(Song song) {
+        if (added == rows) {
+            throw new IllegalStateException("The catalog grew past the " + rows + " songs it was counted at");
+        }
+        int row = added;
+        putInt(layout.contentHashes + 4L * row, SongETags.contentHash(song));
+        Object[] values = SONGS.values(song);
+        for (int column = 0; column < values.length; column++) {
+            set(column, row, values[column]);
+        }
+        SongV2 v2 = song.getSongV2();
+        if (v2 != null) {
+            setBit(layout.songV2, row);
+            Object[] v2Values = SONGS_V2.values(v2);
+            for (int column = 1; column < v2Values.length; column++) {
+                set(values.length + column - 1, row, v2Values[column]);
+            }
+        }
+        int slot = CatalogSnapshot.slot(song.getIsrc().hashCode(), slots - 1);
+        while (sections.getInt(offset(layout.hash + 4L * slot)) != 0) {
+            slot = (slot + 1) & (slots - 1);
+        }
+        putInt(layout.hash + 4L * slot, row + 1);
+        added = row + 1;
+    }
+
+    /**
+     * Completes the header, syncs the file and moves it over {@code path}.
+     *
+     * @throws IllegalStateException unless exactly the announced number of songs was added
+     */
+    public void commit(long createdAt) throws IOException {
+        if (added != rows) {
+            throw new IllegalStateException("The catalog shrank to " + added + " of the " + rows + " songs it was counted at");
+        }
+        flushHeap();
+        sections.putInt(0, CatalogSnapshot.MAGIC);
+        sections.putInt(4, CatalogSnapshot.FORMAT);
+        sections.putLong(8, CatalogSnapshot.LAYOUT);
+        sections.putLong(16, createdAt);
+        sections.putInt(24, rows);
+        sections.putInt(28, slots);
+        sections.putLong(32, layout.heap);
+        sections.putLong(40, layout.heap + heapSize);
+        sections.force();
+        channel.force(true);
+        channel.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+        }
+        if (!committed) {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int slots(long rows) {
+        return Integer.highestOneBit((int) Math.min(Integer.MAX_VALUE / 2, Math.max(rows * 2, 8)) - 1) << 1;
+    }
+
+    private void set(int column, int row, Object value) {
+        if (value == null) {
+            return;
+        }
+        setBit(layout.presence[column], row);
+        long at = layout.values[column] + (long) COLUMNS.get(column).width() * row;
+        if (value instanceof String text) {
+            putInt(at, intern(text));
+        } else if (value instanceof Integer number) {
+            putInt(at, number);
+        } else if (value instanceof Long number) {
+            sections.putLong(offset(at), number);
+        } else {
+            sections.putLong(offset(at), Double.doubleToRawLongBits((Double) value));
+        }
+    }
+
+    private void setBit(long bitmap, int row) {
+        int at = offset(bitmap + 8L * (row >>> 6));
+        sections.putLong(at, sections.getLong(at) | 1L << row);
+    }
+
+    private void putInt(long position, int value) {
+        sections.putInt(offset(position), value);
+    }
+
+    /**
+     * @return the string's offset within the heap
+     */
+    private int intern(String text) {
+        Integer known = strings.get(text);
+        if (known != null) {
+            return known;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        long at = heapSize;
+        if (layout.heap + at + 4 + bytes.length > CatalogSnapshot.MAX_LENGTH) {
+            throw new SnapshotTooLargeException("Catalog strings are too large for one snapshot file after " + added + " songs");
+        }
+        if (heap.remaining() < 4) {
+            flushHeap();
+        }
+        heap.putInt(bytes.length);
+        for (int from = 0; from < bytes.length; ) {
+            if (!heap.hasRemaining()) {
+                flushHeap();
+            }
+            int chunk = Math.min(heap.remaining(), bytes.length - from);
+            heap.put(bytes, from, chunk);
+            from += chunk;
+        }
+        heapSize = at + 4 + bytes.length;
+        if (strings.size() < MAX_INTERNED) {
+            strings.put(text, (int) at);
+        }
+        return (int) at;
+    }
+
+    private void flushHeap() {
+        heap.flip();
+        try {
+            while (heap.hasRemaining()) {
+                heapFlushed += channel.write(heap, layout.heap + heapFlushed);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        heap.clear();
+    }
+
+    private static int offset(long position) {
+        return (int) position;
+    }
+}
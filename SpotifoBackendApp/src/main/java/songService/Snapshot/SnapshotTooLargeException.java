@@ -0,0 +1,12 @@
+package songservice.snapshot;
+
+/**
+ * The catalog doesn't fit the single mapping a {@link CatalogSnapshot} is read through; retrying
+ * won't help until it shrinks.
+ */
+public class SnapshotTooLargeException extends IllegalStateException {
+
+    public SnapshotTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,361 @@
+package songservice.snapshot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import songservice.bulkhead.BulkheadTransactionTemplate;
+import songservice.bulkhead.DatabaseBulkhead;
+import songservice.catalog.CatalogVersion;
+import songservice.catalog.SongETags;
+import songservice.catalog.SongsCreatedEvent;
+import songservice.catalog.SongsUpdatedEvent;
+import songservice.dto.SongDTO;
+import songservice.dto.SongDisplay;
+import songservice.dto.SongLookup;
+import songservice.entity.Song;
+import songservice.exception.ServiceUnavailableException;
+import songservice.repository.SongRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Serves song reads from a memory-mapped {@link CatalogSnapshot} without touching the database, so
+ * they work from the first request, before the database answers, and never wait for a connection or
+ * a bulkhead permit. The database stays the source of truth: the snapshot is rewritten from it in the
+ * background, and anything it can't vouch for is left to the regular service.
+ * <p>
+ * A song is answered from the snapshot unless it was created or updated after the snapshot was
+ * read; a page of {@code GET /songs} only while nothing has been written since. A snapshot older
+ * than max-age isn't used at all, which bounds how stale it can be for writes this process doesn't
+ * see (other instances, manual edits).
+ * <p>
+ * Responses are tagged by {@link SongETags}, not by the snapshot, so the two must agree: a row whose
+ * content hash differs from the one the song's tag stands for is left to the database, and
+ * installing a snapshot advances the {@link CatalogVersion}, so pages it answers never carry a tag
+ * issued for another source's pages.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spotifo.snapshot", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SongSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongSnapshotStore.class);
+    private final SongRepository songRepository;
+    private final EntityManager entityManager;
+    private final SongETags eTags;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final Path path;
+    private final long maxAgeMillis;
+    private final Duration refreshInterval;
+    private final int maxLookup;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Writes seen by this process, and the write count after which each changed ISRC last changed
+    private final AtomicLong writes = new AtomicLong();
+    private final Map<String, Long> changed = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private volatile Installed current;
+    // Confined to the writer thread: failed rewrites back off, and a catalog too large for one file stops them
+    private int failures;
+    private long retryAt;
+    private boolean tooLarge;
+
+    @Autowired
+    public SongSnapshotStore(SongRepository songRepository, EntityManager entityManager, SongETags eTags,
+                             CatalogVersion catalogVersion, PlatformTransactionManager transactionManager, ObjectProvider<DatabaseBulkhead> bulkhead,
+                             MeterRegistry registry,
+                             @Value("${spotifo.snapshot.path:snapshots/catalog.snapshot}") Path path,
+                             @Value("${spotifo.snapshot.max-age:1h}") Duration maxAge,
+                             @Value("${spotifo.snapshot.refresh-interval:1m}") Duration refreshInterval,
+                             @Value("${spotifo.lookup.max-isrcs:500}") int maxLookup) {
+        this.songRepository = songRepository;
+        this.entityManager = entityManager;
+        this.eTags = eTags;
+        this.catalogVersion = catalogVersion;
+        this.transactionTemplate = new BulkheadTransactionTemplate(transactionManager, bulkhead);
+        this.transactionTemplate.setReadOnly(true);
+        this.path = path;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.refreshInterval = refreshInterval;
+        this.maxLookup = maxLookup;
+        this.hits = reads(registry, "snapshot");
+        this.misses = reads(registry, "database");
+        Gauge.builder("spotifo.snapshot.age", this, store -> store.current == null ? Double.NaN
+                        : (System.currentTimeMillis() - store.current.snapshot().createdAt()) / 1000.0)
+                .description("Seconds since the served catalog snapshot was read from the database")
+                .baseUnit("seconds")
+                .register(registry);
+        open();
+    }
+
+    /**
+     * Rewrites the snapshot in the background as soon as the application is up, replacing the one
+     * opened at startup, then whenever something was written since or it is half way to max-age.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer.execute(this::rewrite);
+        writer.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        writer.shutdownNow();
+    }
+
+    /**
+     * @return the song as {@code GET /song/{isrc}} returns it, or {@code null} if the snapshot can't answer
+     */
+    public SongDTO song(String isrc) {
+        Installed installed = usable();
+        int row = rowOf(installed, isrc);
+        if (row < 0) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return installed.snapshot().song(row);
+    }
+
+    /**
+     * @return the lookup result, or {@code null} unless the snapshot can answer for every ISRC
+     */
+    public SongLookup<SongDTO> lookupSongs(List<String> isrcs) {
+        return lookup(isrcs, (snapshot, row) -> snapshot.song(row));
+    }
+
+    public SongLookup<SongDisplay> lookupSongDisplays(List<String> isrcs) {
+        return lookup(isrcs, (snapshot, row) -> snapshot.display(row));
+    }
+
+    /**
+     * @return a page of {@code GET /songs}, or {@code null} if the snapshot can't answer
+     */
+    public Page<SongDisplay> songsByPopularity(int page, int size) {
+        Installed installed = usable();
+        if (installed == null || installed.writes() != writes.get() || page < 1 || size < 1
+                || (long) (page - 1) * size >= installed.snapshot().size()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        CatalogSnapshot snapshot = installed.snapshot();
+        int from = (page - 1) * size;
+        List<SongDisplay> content = rows(from, (int) Math.min((long) from + size, snapshot.size()), snapshot::display);
+        return new PageImpl<>(content, PageRequest.of(page - 1, size), snapshot.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsCreated(SongsCreatedEvent event) {
+        changed(event.songs().stream().map(Song::getIsrc).toList());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSongsUpdated(SongsUpdatedEvent event) {
+        changed(event.isrcs());
+    }
+
+    private void changed(Collection<String> isrcs) {
+        if (isrcs.isEmpty()) {
+            return;
+        }
+        long write = writes.incrementAndGet();
+        isrcs.forEach(isrc -> changed.put(isrc, write));
+    }
+
+    private <T> SongLookup<T> lookup(List<String> isrcs, RowReader<T> reader) {
+        // Requests the service would reject are left to it, so they fail the same way
+        if (isrcs == null || isrcs.isEmpty() || isrcs.size() > maxLookup) {
+            return null;
+        }
+        Installed installed = usable();
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        for (String isrc : isrcs) {
+            if (isrc != null && !isrc.isBlank()) {
+                unique.add(isrc.trim());
+            }
+        }
+        int[] rows = new int[unique.size()];
+        int i = 0;
+        for (String isrc : unique) {
+            rows[i] = rowOf(installed, isrc);
+            if (rows[i++] < 0) {
+                misses.increment();
+                return null;
+            }
+        }
+        hits.increment();
+        List<T> songs = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            songs.add(reader.read(installed.snapshot(), row));
+        }
+        return new SongLookup<>(songs, List.of());
+    }
+
+    /**
+     * @return the song's row, or -1 when it isn't in the snapshot, changed after it was read or
+     * isn't what the song's tag stands for
+     */
+    private int rowOf(Installed installed, String isrc) {
+        if (installed == null) {
+            return -1;
+        }
+        Long write = changed.get(isrc);
+        if (write != null && write > installed.writes()) {
+            return -1;
+        }
+        int row = installed.snapshot().rowOf(isrc);
+        Integer tagged = row < 0 ? null : eTags.contentHash(isrc);
+        return tagged != null && tagged != installed.snapshot().contentHash(row) ? -1 : row;
+    }
+
+    /**
+     * Pages are tagged with the catalog version, so they must move to a new one once the new
+     * snapshot answers them.
+     */
+    private void install(Installed installed) {
+        current = installed;
+        catalogVersion.advance();
+    }
+
+    private Installed usable() {
+        Installed installed = current;
+        if (installed == null || System.currentTimeMillis() - installed.snapshot().createdAt() > maxAgeMillis) {
+            return null;
+        }
+        return installed;
+    }
+
+    private void open() {
+        if (!Files.exists(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.open(path);
+            install(new Installed(snapshot, 0));
+            logger.info("Opened catalog snapshot of {} songs written {} s ago in {} ms", snapshot.size(),
+                    (System.currentTimeMillis() - snapshot.createdAt()) / 1000, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable catalog snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void refresh() {
+        if (tooLarge || System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        Installed installed = current;
+        if (installed == null || installed.writes() != writes.get()
+                || System.currentTimeMillis() - installed.snapshot().createdAt() >= maxAgeMillis / 2) {
+            rewrite();
+        }
+    }
+
+    private void rewrite() {
+        logger.info("Writing catalog snapshot to {}", path);
+        long start = System.nanoTime();
+        // Writes counted from here on may or may not be in what the stream reads, so they count as newer
+        long stamp = writes.get();
+        long createdAt = System.currentTimeMillis();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            // Counted in the transaction that streams, so the file can be laid out before the first row
+            int size = transactionTemplate.execute(status -> {
+                try (CatalogSnapshotWriter snapshotWriter = new CatalogSnapshotWriter(path, songRepository.count());
+                     Stream<Song> songs = songRepository.streamSongsByPopularity()) {
+                    songs.forEach(song -> {
+                        snapshotWriter.add(song);
+                        if (song.getSongV2() != null) {
+                            entityManager.detach(song.getSongV2());
+                        }
+                        entityManager.detach(song);
+                    });
+                    snapshotWriter.commit(createdAt);
+                    return snapshotWriter.size();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            install(new Installed(CatalogSnapshot.open(path), stamp));
+            changed.values().removeIf(write -> write <= stamp);
+            failures = 0;
+            logger.info("Wrote catalog snapshot of {} songs ({} KB) in {} ms", size,
+                    Files.size(path) / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (SnapshotTooLargeException e) {
+            tooLarge = true;
+            logger.error("Not writing catalog snapshots any more: {}", e.getMessage());
+        } catch (DataAccessException | ServiceUnavailableException | IOException | UncheckedIOException | IllegalStateException e) {
+            failures++;
+            long backoff = Math.min(maxAgeMillis, refreshInterval.toMillis() << Math.min(failures, 10));
+            retryAt = System.currentTimeMillis() + backoff;
+            logger.warn("Failed to write catalog snapshot to {}, retrying in {} s", path, backoff / 1000, e);
+        }
+    }
+
+    private static <T> List<T> rows(int from, int to, IntFunction<T> reader) {
+        List<T> rows = new ArrayList<>(to - from);
+        for (int row = from; row < to; row++) {
+            rows.add(reader.apply(row));
+        }
+        return rows;
+    }
+
+    private static Counter reads(MeterRegistry registry, String source) {
+        return Counter.builder("spotifo.snapshot.reads")
+                .description("Song reads the catalog snapshot answered or left to the database")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    private interface RowReader<T> {
+        T read(CatalogSnapshot snapshot, int row);
+    }
+
+    /**
+     * A snapshot and the write count it reflects.
+     */
+    private record Installed(CatalogSnapshot snapshot, long writes) {
+    }
+}
@@ -0,0 +1,157 @@
+package songservice.stats;
+
+import org.springframework.stereotype.Component;
+import songservice.catalog.CatalogIndex;
+import songservice.dto.CatalogStats;
+import songservice.dto.NamedCount;
+import songservice.dto.YearStats;
+import songservice.entity.Song;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running totals over the whole catalog: songs per release year with their explicit share and mean
+ * audio features, genre and label histograms. Each song is folded in once when the catalog loads or
+ * the song is created, and built reports are memoized until the next song arrives.
+ */
+@Component
+public class CatalogStatistics implements CatalogIndex {
+
+    private static final String[] FEATURES = {"danceability", "energy", "loudness", "speechiness", "acousticness",
+            "instrumentalness", "liveness", "valence", "tempo"};
+
+    private final Map<Integer, YearAggregate> years = new TreeMap<>();
+    private final Map<String, Long> artistGenres = new HashMap<>();
+    private final Map<String, Long> albumGenres = new HashMap<>();
+    private final Map<String, Long> labels = new HashMap<>();
+    private final Map<Integer, CatalogStats> reports = new ConcurrentHashMap<>();
+    private long songs;
+    private long explicit;
+    private long explicitKnown;
+
+    @Override
+    public synchronized void add(int ordinal, Song song) {
+        songs++;
+        Boolean isExplicit = parseExplicit(song.getExplicit());
+        if (isExplicit != null) {
+            explicitKnown++;
+            explicit += isExplicit ? 1 : 0;
+        }
+        count(artistGenres, song.getArtistGenres());
+        count(albumGenres, song.getAlbumGenres());
+        if (song.getLabel() != null && !song.getLabel().isBlank()) {
+            labels.merge(song.getLabel().trim(), 1L, Long::sum);
+        }
+        Integer year = releaseYear(song.getAlbumReleaseDate());
+        if (year != null) {
+            years.computeIfAbsent(year, y -> new YearAggregate()).add(song, isExplicit);
+        }
+        reports.clear();
+    }
+
+    /**
+     * The current statistics with the {@code top} most frequent genres and labels.
+     */
+    public CatalogStats report(int top) {
+        CatalogStats report = reports.get(top);
+        return report != null ? report : build(top);
+    }
+
+    private synchronized CatalogStats build(int top) {
+        List<YearStats> perYear = new ArrayList<>(years.size());
+        years.forEach((year, aggregate) -> perYear.add(aggregate.toStats(year)));
+        CatalogStats report = CatalogStats.builder()
+                .totalSongs(songs)
+                .explicitRatio(ratio(explicit, explicitKnown))
+                .years(perYear)
+                .artistGenres(top(artistGenres, top))
+                .albumGenres(top(albumGenres, top))
+                .labels(top(labels, top))
+                .build();
+        reports.put(top, report);
+        return report;
+    }
+
+    private static void count(Map<String, Long> histogram, String genres) {
+        if (genres == null) {
+            return;
+        }
+        for (String genre : genres.split(",")) {
+            String name = genre.trim().toLowerCase(Locale.ROOT);
+            if (!name.isEmpty()) {
+                histogram.merge(name, 1L, Long::sum);
+            }
+        }
+    }
+
+    private static List<NamedCount> top(Map<String, Long> histogram, int top) {
+        return histogram.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(top)
+                .map(entry -> new NamedCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static Integer releaseYear(String releaseDate) {
+        if (releaseDate == null || releaseDate.length() < 4) {
+            return null;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (!Character.isDigit(releaseDate.charAt(i))) {
+                return null;
+            }
+        }
+        return Integer.parseInt(releaseDate.substring(0, 4));
+    }
+
+    private static Boolean parseExplicit(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().equalsIgnoreCase("true") || value.trim().equals("1");
+    }
+
+    private static Double ratio(long part, long whole) {
+        return whole == 0 ? null : (double) part / whole;
+    }
+
+    private static final class YearAggregate {
+
+        private final double[] sums = new double[FEATURES.length];
+        private final long[] counts = new long[FEATURES.length];
+        private long songs;
+        private long explicit;
+        private long explicitKnown;
+
+        void add(Song song, Boolean isExplicit) {
+            songs++;
+            if (isExplicit != null) {
+                explicitKnown++;
+                explicit += isExplicit ? 1 : 0;
+            }
+            Double[] values = {song.getDanceability(), song.getEnergy(), song.getLoudness(), song.getSpeechiness(),
+                    song.getAcousticness(), song.getInstrumentalness(), song.getLiveness(), song.getValence(), song.getTempo()};
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    sums[i] += values[i];
+                    counts[i]++;
+                }
+            }
+        }
+
+        YearStats toStats(int year) {
+            Map<String, Double> averages = new LinkedHashMap<>();
+            for (int i = 0; i < FEATURES.length; i++) {
+                averages.put(FEATURES[i], counts[i] == 0 ? null : sums[i] / counts[i]);
+            }
+            return new YearStats(year, songs, ratio(explicit, explicitKnown), averages);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package songservice.suggest;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable sorted key array with a segment tree holding, for every node, the position of its
+ * heaviest key. All keys sharing a prefix form one contiguous range, and its keys come out heaviest
+ * first by repeatedly splitting the range around its maximum, so only as many nodes are touched as
+ * results are consumed.
+ */
+final class PrefixSnapshot {
+
+    static final PrefixSnapshot EMPTY = build(new String[0], new int[0], new int[0]);
+
+    private final String[] keys;
+    private final int[] ids;
+    private final int[] weights;
+    private final int[] tree;
+    private final int leaves;
+
+    private PrefixSnapshot(String[] keys, int[] ids, int[] weights) {
+        this.keys = keys;
+        this.ids = ids;
+        this.weights = weights;
+        int leaves = 1;
+        while (leaves < keys.length) {
+            leaves <<= 1;
+        }
+        this.leaves = leaves;
+        this.tree = new int[2 * leaves];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < keys.length; i++) {
+            tree[leaves + i] = i;
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    static PrefixSnapshot build(String[] keys, int[] ids, int[] suggestionWeights) {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.parallelSort(order, Comparator.comparing(i -> keys[i]));
+        String[] sortedKeys = new String[keys.length];
+        int[] sortedIds = new int[keys.length];
+        int[] sortedWeights = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedIds[i] = ids[order[i]];
+            sortedWeights[i] = suggestionWeights[sortedIds[i]];
+        }
+        return new PrefixSnapshot(sortedKeys, sortedIds, sortedWeights);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Passes the suggestion ids of keys starting with {@code prefix} to {@code consumer}, heaviest
+     * first, until it returns {@code false}. An id reachable through several keys may repeat.
+     */
+    void visit(String prefix, IntPredicate consumer) {
+        int from = firstNotBefore(prefix);
+        int to = firstAfterPrefix(prefix, from);
+        if (from >= to) {
+            return;
+        }
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> Integer.compare(weights[b[2]], weights[a[2]]));
+        ranges.add(new int[]{from, to, max(from, to)});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int position = range[2];
+            if (!consumer.test(ids[position])) {
+                return;
+            }
+            if (range[0] < position) {
+                ranges.add(new int[]{range[0], position, max(range[0], position)});
+            }
+            if (position + 1 < range[1]) {
+                ranges.add(new int[]{position + 1, range[1], max(position + 1, range[1])});
+            }
+        }
+    }
+
+    private int firstNotBefore(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstAfterPrefix(String prefix, int from) {
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Position of the heaviest key in [from, to).
+     */
+    private int max(int from, int to) {
+        int best = -1;
+        for (int left = from + leaves, right = to + leaves; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                best = heavier(best, tree[left++]);
+            }
+            if ((right & 1) == 1) {
+                best = heavier(best, tree[--right]);
+            }
+        }
+        return best;
+    }
+
+    private int heavier(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return weights[b] > weights[a] || (weights[b] == weights[a] && b < a) ? b : a;
+    }
+}
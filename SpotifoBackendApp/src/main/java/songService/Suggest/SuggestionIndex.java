@@ -0,0 +1,265 @@
+package songservice.suggest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import songservice.catalog.CatalogIndex;
+import songservice.dto.Suggestion;
+import songservice.entity.Song;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead over track, artist and album names. Every distinct name is a suggestion weighted by the
+ * highest popularity among its songs, reachable from the start of the name and from the start of its
+ * next few words. Keys live in a sorted array ({@link PrefixSnapshot}) where a prefix is a contiguous
+ * range answered by a range-max segment tree; keys added since the last build, and the keys of names
+ * whose weight rose since, sit in a small sorted delta map and are folded into a new snapshot in the
+ * background once it grows.
+ */
+@Component
+public class SuggestionIndex implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndex.class);
+    private static final int WORD_KEYS = 3;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int deltaLimit;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final NavigableMap<String, int[]> delta = new TreeMap<>();
+    // Names whose weight rose after the snapshot being served (or built) copied the weights
+    private final Set<Integer> reweighted = new HashSet<>();
+    private int reweightedKeys;
+    private String[] texts = new String[1024];
+    private byte[] types = new byte[1024];
+    private int[] weights = new int[1024];
+    private String[] isrcs = new String[1024];
+    private int suggestions;
+    private String[] keys = new String[4096];
+    private int[] keyIds = new int[4096];
+    private int keyCount;
+    private volatile PrefixSnapshot snapshot = PrefixSnapshot.EMPTY;
+    private boolean loaded;
+    private boolean rebuilding;
+
+    @Autowired
+    public SuggestionIndex(@Value("${spotifo.suggest.delta-limit:4096}") int deltaLimit) {
+        this.deltaLimit = deltaLimit;
+    }
+
+    @Override
+    public void add(int ordinal, Song song) {
+        int popularity = song.getPopularity() == null ? 0 : song.getPopularity();
+        lock.writeLock().lock();
+        try {
+            add(Suggestion.Type.TRACK, song.getTrackName(), popularity, song.getIsrc());
+            if (song.getArtistNames() != null) {
+                for (String artist : song.getArtistNames().split(",")) {
+                    add(Suggestion.Type.ARTIST, artist, popularity, null);
+                }
+            }
+            add(Suggestion.Type.ALBUM, song.getAlbumName(), popularity, null);
+            if (loaded && keyCount - snapshot.size() + reweightedKeys >= deltaLimit && !rebuilding) {
+                rebuilding = true;
+                rebuilder.execute(this::rebuild);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void loaded() {
+        lock.writeLock().lock();
+        try {
+            loaded = true;
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuild();
+    }
+
+    /**
+     * Up to {@code limit} suggestions whose name, or one of its leading words, starts with the query,
+     * most popular first. A {@code null} type searches all three kinds.
+     */
+    public List<Suggestion> suggest(String query, Suggestion.Type type, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            PrefixSnapshot current = snapshot;
+            TopSuggestions top = new TopSuggestions(limit);
+            current.visit(prefix, id -> {
+                if (type == null || types[id] == type.ordinal()) {
+                    top.offer(id, weights[id]);
+                }
+                return top.size() < limit;
+            });
+            for (int[] added : delta.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                for (int id : added) {
+                    if (type == null || types[id] == type.ordinal()) {
+                        top.offer(id, weights[id]);
+                    }
+                }
+            }
+            List<Suggestion> result = new ArrayList<>(top.size());
+            for (int id : top.sorted()) {
+                result.add(new Suggestion(texts[id], Suggestion.Type.values()[types[id]], weights[id], isrcs[id]));
+            }
+            logger.debug("Suggested {} names for '{}' in {} µs", result.size(), prefix, (System.nanoTime() - start) / 1_000);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Suggestion.Type type, String name, int popularity, String isrc) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String text = name.trim();
+        String key = normalize(text);
+        Integer existing = ids.get(type.ordinal() + key);
+        if (existing != null) {
+            if (popularity > weights[existing]) {
+                weights[existing] = popularity;
+                isrcs[existing] = isrc;
+                // The snapshot still ranks the name by its old weight and may never reach it
+                if (loaded && reweighted.add(existing)) {
+                    for (String reweightedKey : keys(key)) {
+                        delta.merge(reweightedKey, new int[]{existing}, SuggestionIndex::concat);
+                        reweightedKeys++;
+                    }
+                }
+            }
+            return;
+        }
+        int id = suggestions++;
+        if (id == texts.length) {
+            texts = Arrays.copyOf(texts, id * 2);
+            types = Arrays.copyOf(types, id * 2);
+            weights = Arrays.copyOf(weights, id * 2);
+            isrcs = Arrays.copyOf(isrcs, id * 2);
+        }
+        texts[id] = text;
+        types[id] = (byte) type.ordinal();
+        weights[id] = popularity;
+        isrcs[id] = isrc;
+        ids.put(type.ordinal() + key, id);
+        for (String nameKey : keys(key)) {
+            addKey(nameKey, id);
+        }
+    }
+
+    /**
+     * The normalized name and its suffixes starting at each of the next few words.
+     */
+    private static List<String> keys(String key) {
+        List<String> keys = new ArrayList<>(WORD_KEYS + 1);
+        keys.add(key);
+        int from = 0;
+        for (int word = 0; word < WORD_KEYS; word++) {
+            int space = key.indexOf(' ', from);
+            if (space < 0 || space + 1 == key.length()) {
+                break;
+            }
+            keys.add(key.substring(space + 1));
+            from = space + 1;
+        }
+        return keys;
+    }
+
+    private void addKey(String key, int id) {
+        if (keyCount == keys.length) {
+            keys = Arrays.copyOf(keys, keyCount * 2);
+            keyIds = Arrays.copyOf(keyIds, keyCount * 2);
+        }
+        keys[keyCount] = key;
+        keyIds[keyCount] = id;
+        keyCount++;
+        // Until the first build the whole catalog is pending, and nothing is served before then
+        if (loaded) {
+            delta.merge(key, new int[]{id}, SuggestionIndex::concat);
+        }
+    }
+
+    /**
+     * Sorts a copy of every key added so far outside the lock. Keys added meanwhile go back into the
+     * delta because the new snapshot only covers the copied prefix of the key array, and so do the
+     * keys of names reweighted after the weights were copied.
+     */
+    private void rebuild() {
+        long start = System.nanoTime();
+        String[] keyCopy;
+        int[] idCopy;
+        int[] weightCopy;
+        lock.writeLock().lock();
+        try {
+            keyCopy = Arrays.copyOf(keys, keyCount);
+            idCopy = Arrays.copyOf(keyIds, keyCount);
+            weightCopy = Arrays.copyOf(weights, suggestions);
+            reweighted.clear();
+            reweightedKeys = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        PrefixSnapshot built = PrefixSnapshot.build(keyCopy, idCopy, weightCopy);
+        lock.writeLock().lock();
+        try {
+            snapshot = built;
+            delta.clear();
+            for (int i = built.size(); i < keyCount; i++) {
+                delta.merge(keys[i], new int[]{keyIds[i]}, SuggestionIndex::concat);
+            }
+            for (int id : reweighted) {
+                for (String key : keys(normalize(texts[id]))) {
+                    delta.merge(key, new int[]{id}, SuggestionIndex::concat);
+                }
+            }
+            rebuilding = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Built suggestion index over {} keys in {} ms", built.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] joined = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+
+    /**
+     * Lower-cases and turns punctuation runs into single spaces, so "AC/DC" and "ac dc" meet.
+     */
+    static String normalize(String value) {
+        return value == null ? "" : SEPARATORS.matcher(value.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,33 @@
+package songservice.suggest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distinct suggestion ids collected for one query, ranked by their current weight.
+ */
+class TopSuggestions {
+
+    private final int limit;
+    private final Map<Integer, Integer> weights = new LinkedHashMap<>();
+
+    TopSuggestions(int limit) {
+        this.limit = limit;
+    }
+
+    void offer(int id, int weight) {
+        weights.putIfAbsent(id, weight);
+    }
+
+    int size() {
+        return weights.size();
+    }
+
+    List<Integer> sorted() {
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(weights.entrySet());
+        entries.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return entries.stream().limit(limit).map(Map.Entry::getKey).toList();
+    }
+}
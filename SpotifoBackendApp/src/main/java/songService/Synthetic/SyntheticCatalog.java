@@ -0,0 +1,195 @@
+package songservice.synthetic;
+
+import songservice.entity.Song;
+import songservice.entity.SongV2;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic fake catalog: song {@code i} is always the same for a given seed, independent of how
+ * many songs are generated or in which order. Distributions follow the shape of the real exports:
+ * artists (and their labels and genres) are reused with a Zipf-like skew, release years lean
+ * towards recent decades, popularity follows artist fame, and only popular tracks carry songs2024
+ * streaming counts.
+ */
+public final class SyntheticCatalog {
+
+    public static final String[] WORDS = {"love", "night", "heart", "fire", "dream", "summer", "rain", "dance",
+            "light", "city", "blue", "gold", "wild", "home", "river", "star", "time", "ghost", "paper", "sky",
+            "girl", "boy", "baby", "money", "midnight", "forever", "alone", "together", "party", "crazy",
+            "sweet", "dark", "young", "free", "lonely", "golden", "electric", "moon", "ocean", "highway"};
+    private static final String[] SYLLABLES = {"ka", "ri", "lo", "ne", "sa", "mi", "to", "ra", "vi", "el",
+            "an", "jo", "ly", "xo", "da", "mo", "ze", "bu", "ta", "fi"};
+    private static final String[] GENRES = {"pop", "dance pop", "rock", "hip hop", "rap", "r&b", "indie",
+            "edm", "house", "country", "latin", "reggaeton", "k-pop", "soul", "funk", "jazz", "metal",
+            "alternative rock", "trap", "folk", "electropop", "classic rock", "singer-songwriter", "disco",
+            "punk", "blues", "afrobeats", "lo-fi", "synthpop", "gospel"};
+    private static final int ARTISTS = 200_000;
+    private static final int LABELS = 2_000;
+
+    private final long seed;
+
+    public SyntheticCatalog(long seed) {
+        this.seed = seed;
+    }
+
+    public static String isrc(int index) {
+        return String.format("QZS%09d", index);
+    }
+
+    public Song song(int index) {
+        SplittableRandom random = random(index);
+        int artist = zipf(random, ARTISTS);
+        SplittableRandom artistRandom = random(-1 - artist);
+        int album = artist * 8 + zipf(random, 8);
+        SplittableRandom albumRandom = random(Integer.MIN_VALUE + album);
+
+        Song song = new Song();
+        song.setIsrc(isrc(index));
+        song.setTrackName(title(random, 1 + random.nextInt(4)));
+        song.setTrackUri("spotify:track:" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36));
+        song.setArtistNames(artistName(artist));
+        song.setArtistUris("spotify:artist:" + Integer.toString(artist, 36));
+        song.setAlbumName(title(albumRandom, 1 + albumRandom.nextInt(3)));
+        song.setAlbumUri("spotify:album:" + Integer.toString(album, 36));
+        song.setAlbumArtistNames(song.getArtistNames());
+        song.setAlbumArtistUris(song.getArtistUris());
+        int year = 2025 - (int) (65 * Math.pow(albumRandom.nextDouble(), 1.4));
+        song.setAlbumReleaseDate(String.format("%d-%02d-%02d", year, 1 + albumRandom.nextInt(12), 1 + albumRandom.nextInt(28)));
+        song.setAlbumImageUrl("https://i.scdn.co/image/" + Long.toHexString(albumRandom.nextLong()));
+        song.setDiscNumber(1);
+        song.setTrackNumber(1 + random.nextInt(14));
+        song.setTrackDurationMs(90_000 + (int) (Math.abs(gaussian(random)) * 60_000) + random.nextInt(120_000));
+        song.setExplicit(Boolean.toString(random.nextInt(4) == 0));
+        double fame = 1 - Math.log(artist + 1) / Math.log(ARTISTS);
+        song.setPopularity(clamp((int) Math.round(75 * fame + 15 * gaussian(random)), 0, 100));
+        song.setAddedBy("spotify:user:synthetic");
+        song.setAddedAt(year + "-06-01T00:00:00Z");
+        String genres = genres(artistRandom);
+        song.setArtistGenres(genres);
+        song.setAlbumGenres(genres.contains(",") ? genres.substring(0, genres.indexOf(',')) : genres);
+        song.setLabel(labelName(zipf(artistRandom, LABELS)));
+        song.setCopyrights("C " + year + " " + song.getLabel());
+        song.setDanceability(unit(0.6 + 0.15 * gaussian(random)));
+        song.setEnergy(unit(0.65 + 0.2 * gaussian(random)));
+        song.setKey(random.nextInt(12));
+        song.setLoudness(Math.max(-60, Math.min(0, -7 + 3 * gaussian(random))));
+        song.setMode(random.nextInt(10) < 6 ? 1 : 0);
+        song.setSpeechiness(unit(-0.08 * Math.log(1 - random.nextDouble())));
+        double acoustic = random.nextDouble();
+        song.setAcousticness(acoustic * acoustic);
+        song.setInstrumentalness(random.nextInt(5) == 0 ? random.nextDouble() : random.nextDouble() * 0.01);
+        song.setLiveness(unit(0.1 + 0.2 * random.nextDouble()));
+        song.setValence(unit(0.5 + 0.25 * gaussian(random)));
+        song.setTempo(Math.max(40, 120 + 28 * gaussian(random)));
+        song.setTimeSignature(random.nextInt(20) == 0 ? 3 : 4);
+        return song;
+    }
+
+    /**
+     * The songs2024 row of a generated song, or {@code null} if it is not popular enough to chart.
+     */
+    public SongV2 songV2(Song song, int index) {
+        if (song.getPopularity() < 60) {
+            return null;
+        }
+        SplittableRandom random = random(Long.MAX_VALUE - index);
+        double scale = Math.pow(10, (song.getPopularity() - 60) / 10.0);
+        SongV2 v2 = new SongV2();
+        v2.setIsrc(song.getIsrc());
+        v2.setTrack(song.getTrackName());
+        v2.setAlbumName(song.getAlbumName());
+        v2.setArtist(song.getArtistNames());
+        v2.setReleaseDate(song.getAlbumReleaseDate());
+        v2.setTrackScore(Math.round(scale * 10 * random.nextDouble() * 10) / 10.0);
+        v2.setSpotifyStreams(count(random, 50_000_000 * scale));
+        v2.setSpotifyPlaylistCount(count(random, 20_000 * scale));
+        v2.setSpotifyPlaylistReach(count(random, 10_000_000 * scale));
+        v2.setSpotifyPopularity(song.getPopularity());
+        v2.setYoutubeViews(count(random, 40_000_000 * scale));
+        v2.setYoutubeLikes(count(random, 400_000 * scale));
+        v2.setTiktokPosts(count(random, 50_000 * scale));
+        v2.setTiktokLikes(count(random, 5_000_000 * scale));
+        v2.setTiktokViews(count(random, 50_000_000 * scale));
+        v2.setAirplaySpins(count(random, 20_000 * scale));
+        v2.setSiriusxmSpins(count(random, 500 * scale));
+        v2.setPandoraStreams(count(random, 5_000_000 * scale));
+        v2.setSoundcloudStreams(random.nextInt(3) == 0 ? null : count(random, 1_000_000 * scale));
+        v2.setShazamCounts(count(random, 1_000_000 * scale));
+        v2.setExplicitTrack("true".equals(song.getExplicit()) ? 1 : 0);
+        return v2;
+    }
+
+    private SplittableRandom random(long stream) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + stream);
+    }
+
+    /**
+     * Rank in [0, bound) with probability roughly proportional to 1 / (rank + 1).
+     */
+    public static int zipf(SplittableRandom random, int bound) {
+        return Math.min(bound - 1, (int) Math.floor(Math.pow(bound + 1, random.nextDouble())) - 1);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static String title(SplittableRandom random, int words) {
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            String word = WORDS[zipf(random, WORDS.length)];
+            title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return title.toString();
+    }
+
+    private String artistName(int artist) {
+        SplittableRandom random = random(-1_000_000_000L - artist);
+        return word(random, 2 + random.nextInt(2)) + (random.nextBoolean() ? " " + word(random, 2 + random.nextInt(2)) : "");
+    }
+
+    private static String word(SplittableRandom random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        return word.toString();
+    }
+
+    private static String labelName(int label) {
+        return "Label " + Integer.toString(label, 36).toUpperCase(Locale.ROOT) + " Records";
+    }
+
+    private static String genres(SplittableRandom random) {
+        int count = 1 + random.nextInt(3);
+        StringBuilder genres = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String genre = GENRES[zipf(random, GENRES.length)];
+            if (genres.indexOf(genre) < 0) {
+                if (!genres.isEmpty()) {
+                    genres.append(',');
+                }
+                genres.append(genre);
+            }
+        }
+        return genres.toString();
+    }
+
+    private static String count(SplittableRandom random, double mean) {
+        return String.format(Locale.US, "%,d", (long) (mean * (0.5 + random.nextDouble())));
+    }
+
+    private static double unit(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
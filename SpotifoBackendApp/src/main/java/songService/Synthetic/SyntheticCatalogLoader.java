@@ -0,0 +1,94 @@
+package songservice.synthetic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import songservice.bulkhead.BulkheadTransactionTemplate;
+import songservice.bulkhead.DatabaseBulkhead;
+import songservice.catalog.SongsCreatedEvent;
+import songservice.entity.Song;
+import songservice.entity.SongMetrics;
+import songservice.entity.SongV2;
+import songservice.repository.SongJdbcRepository;
+import songservice.repository.SongRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the database with {@code spotifo.synthetic.rows} generated songs before the application
+ * reports ready, so the catalog and every in-memory index load them as usual. Meant for a database
+ * holding nothing but synthetic songs: rows already present are taken to be the first songs of the
+ * sequence, so a restart with a larger count only generates the missing tail.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spotifo.synthetic", name = "rows")
+public class SyntheticCatalogLoader implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticCatalogLoader.class);
+    private static final int CHUNK_SIZE = 5000;
+    private final SongRepository songRepository;
+    private final SongJdbcRepository songJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SyntheticCatalog catalog;
+    private final int rows;
+
+    @Autowired
+    public SyntheticCatalogLoader(SongRepository songRepository, SongJdbcRepository songJdbcRepository,
+                                  PlatformTransactionManager transactionManager, ObjectProvider<DatabaseBulkhead> bulkhead, ApplicationEventPublisher eventPublisher,
+                                  @Value("${spotifo.synthetic.rows}") int rows,
+                                  @Value("${spotifo.synthetic.seed:42}") long seed) {
+        this.songRepository = songRepository;
+        this.songJdbcRepository = songJdbcRepository;
+        this.transactionTemplate = new BulkheadTransactionTemplate(transactionManager, bulkhead);
+        this.eventPublisher = eventPublisher;
+        this.catalog = new SyntheticCatalog(seed);
+        this.rows = rows;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int existing = (int) songRepository.count();
+        if (existing >= rows) {
+            logger.info("Synthetic catalog already holds {} songs", existing);
+            return;
+        }
+        logger.info("Generating synthetic songs {} to {}", existing, rows);
+        long start = System.nanoTime();
+        for (int from = existing; from < rows; from += CHUNK_SIZE) {
+            int to = Math.min(rows, from + CHUNK_SIZE);
+            List<Song> songs = new ArrayList<>(to - from);
+            List<SongV2> charted = new ArrayList<>();
+            List<SongMetrics> metrics = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Song song = catalog.song(i);
+                songs.add(song);
+                SongV2 v2 = catalog.songV2(song, i);
+                if (v2 != null) {
+                    charted.add(v2);
+                    metrics.add(SongMetrics.of(v2));
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                songJdbcRepository.insertAll(SongJdbcRepository.SONGS, songs);
+                songJdbcRepository.insertAll(SongJdbcRepository.SONGS_V2, charted);
+                songJdbcRepository.insertAll(SongJdbcRepository.SONG_METRICS, metrics);
+                eventPublisher.publishEvent(new SongsCreatedEvent(songs));
+            });
+            if (to % 100_000 == 0) {
+                logger.info("Generated {} of {} songs", to, rows);
+            }
+        }
+        logger.info("Generated {} synthetic songs in {} ms", rows - existing, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,242 @@
+package songservice.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+import songservice.dto.SongDisplay;
+import songservice.service.SongService;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Warms the service up between startup and readiness. Spring Boot reports the readiness state as
+ * accepting traffic only once every {@link ApplicationReadyEvent} listener has returned, so running
+ * last among them keeps {@code /actuator/health/readiness} down until the catalog is loaded and this
+ * has finished:
+ * <ol>
+ *     <li>every Hikari pool (the primary and any replicas) opens its minimum-idle connections;</li>
+ *     <li>the hot ISRCs, listed ones plus the top songs by popularity, are read through the service,
+ *     filling the detail, page and display caches and the database buffer pool;</li>
+ *     <li>the configured requests and {@code GET /song/{isrc}} for every hot ISRC are replayed
+ *     against the local server for a number of passes, so request handling, mapping and
+ *     serialization are compiled before real traffic arrives.</li>
+ * </ol>
+ * Failures are logged and skipped; warm-up never keeps the service from starting, and stops early
+ * once max-duration is spent.
+ */
+@Component
+@ConditionalOnProperty(prefix = "spotifo.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+    private static final int TOP_PAGE_SIZE = 100;
+    private final SongService songService;
+    private final DataSource dataSource;
+    private final List<String> requests;
+    private final List<String> isrcs;
+    private final int topSongs;
+    private final int passes;
+    private final Duration maxDuration;
+    private final AtomicLong durationNanos = new AtomicLong();
+    private final AtomicReference<Double> coverage = new AtomicReference<>(0.0);
+    private final AtomicLong connections = new AtomicLong();
+    private final Counter succeeded;
+    private final Counter failed;
+
+    @Autowired
+    public StartupWarmup(SongService songService, DataSource dataSource, Environment environment, MeterRegistry registry,
+                         @Value("${spotifo.warmup.top-songs:200}") int topSongs,
+                         @Value("${spotifo.warmup.passes:5}") int passes,
+                         @Value("${spotifo.warmup.max-duration:30s}") Duration maxDuration) {
+        this.songService = songService;
+        this.dataSource = dataSource;
+        Binder binder = Binder.get(environment);
+        this.requests = binder.bind("spotifo.warmup.requests", Bindable.listOf(String.class)).orElse(List.of());
+        this.isrcs = binder.bind("spotifo.warmup.isrcs", Bindable.listOf(String.class)).orElse(List.of());
+        this.topSongs = topSongs;
+        this.passes = passes;
+        this.maxDuration = maxDuration;
+        TimeGauge.builder("spotifo.warmup.duration", durationNanos, TimeUnit.NANOSECONDS, AtomicLong::get)
+                .description("Time spent warming up before reporting readiness")
+                .register(registry);
+        Gauge.builder("spotifo.warmup.coverage", coverage, AtomicReference::get)
+                .description("Share of the planned warm-up requests that were answered without a server error")
+                .register(registry);
+        Gauge.builder("spotifo.warmup.connections", connections, AtomicLong::get)
+                .description("Database connections the pools held open at once during warm-up")
+                .register(registry);
+        this.succeeded = requests(registry, "success");
+        this.failed = requests(registry, "failure");
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp(ApplicationReadyEvent event) {
+        logger.info("Warming up before accepting traffic");
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        preSizePools();
+        List<String> hot = hotIsrcs(deadline);
+        List<String> paths = new ArrayList<>(requests);
+        hot.forEach(isrc -> paths.add("/song/" + isrc));
+        long planned = (long) paths.size() * passes;
+        long answered = 0;
+        if (event.getApplicationContext() instanceof WebServerApplicationContext web && planned > 0) {
+            answered = replay("http://localhost:" + web.getWebServer().getPort(), paths, deadline);
+        }
+        coverage.set(planned == 0 ? 1.0 : (double) answered / planned);
+        durationNanos.set(System.nanoTime() - start);
+        logger.info("Warm-up finished in {} ms: {} connection(s) opened, {} hot ISRC(s), {} of {} requests answered",
+                durationNanos.get() / 1_000_000, connections.get(), hot.size(), answered, planned);
+    }
+
+    /**
+     * Holds as many connections as each pool keeps idle at once, so they are all opened now rather
+     * than by the first requests (or lazily by Hikari's housekeeping).
+     */
+    private void preSizePools() {
+        for (HikariDataSource pool : pools(dataSource)) {
+            // Before a pool has started, an unset minimum-idle still reads -1; Hikari treats it as the maximum
+            int target = pool.getMinimumIdle() < 0 ? pool.getMaximumPoolSize() : pool.getMinimumIdle();
+            List<Connection> held = new ArrayList<>();
+            try {
+                while (held.size() < target) {
+                    held.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                logger.warn("Could not pre-open connections for pool {}: {}", pool.getPoolName(), e.getMessage());
+            } finally {
+                connections.addAndGet(held.size());
+                for (Connection connection : held) {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        logger.debug("Failed to return a warm-up connection", e);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<String> hotIsrcs(long deadline) {
+        Set<String> hot = new LinkedHashSet<>(isrcs);
+        try {
+            for (int page = 1; hot.size() < isrcs.size() + topSongs && System.nanoTime() < deadline; page++) {
+                List<SongDisplay> songs = songService.getAllSongs(page, TOP_PAGE_SIZE).getContent();
+                songs.stream().limit(isrcs.size() + topSongs - hot.size()).forEach(song -> hot.add(song.getIsrc()));
+                if (songs.size() < TOP_PAGE_SIZE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the top songs for warm-up: {}", e.getMessage());
+        }
+        List<String> warmed = new ArrayList<>(hot.size());
+        for (String isrc : hot) {
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+            try {
+                songService.getSongByIsrc(isrc);
+                warmed.add(isrc);
+            } catch (RuntimeException e) {
+                logger.debug("Skipping warm-up ISRC {}: {}", isrc, e.getMessage());
+            }
+        }
+        return warmed;
+    }
+
+    /**
+     * @return how many requests were answered without a server error
+     */
+    private long replay(String baseUrl, List<String> paths, long deadline) {
+        long answered = 0;
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build()) {
+            for (int pass = 0; pass < passes; pass++) {
+                for (String path : paths) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return answered;
+                    }
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .header("Accept-Encoding", "gzip")
+                            .timeout(Duration.ofNanos(remaining))
+                            .GET()
+                            .build();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status < 500) {
+                            answered++;
+                            succeeded.increment();
+                        } else {
+                            failed.increment();
+                        }
+                    } catch (IOException | IllegalArgumentException e) {
+                        failed.increment();
+                        logger.debug("Warm-up request {} failed: {}", path, e.getMessage());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return answered;
+                    }
+                }
+            }
+        }
+        return answered;
+    }
+
+    private static List<HikariDataSource> pools(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource pool) {
+            return List.of(pool);
+        }
+        if (dataSource instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            return pools(delegating.getTargetDataSource());
+        }
+        if (dataSource instanceof AbstractRoutingDataSource routing) {
+            return routing.getResolvedDataSources().values().stream()
+                    .flatMap(target -> pools(target).stream())
+                    .distinct()
+                    .toList();
+        }
+        return List.of();
+    }
+
+    private static Counter requests(MeterRegistry registry, String outcome) {
+        return Counter.builder("spotifo.warmup.requests")
+                .description("Requests replayed against the local server during warm-up")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,6 @@
+-- Stand-in read replica for the replicas profile: a database of its own exposing the synthetic
+-- primary's tables as read-only linked tables, so anything routed here shows up in its own pool and
+-- a write routed here by mistake fails instead of passing silently
+CREATE FORCE LINKED TABLE IF NOT EXISTS songs2025('org.h2.Driver', 'jdbc:h2:file:./data/synthetic;NON_KEYWORDS=KEY,VALUE', 'sa', '', 'SONGS2025') READONLY;
+CREATE FORCE LINKED TABLE IF NOT EXISTS songs2024('org.h2.Driver', 'jdbc:h2:file:./data/synthetic;NON_KEYWORDS=KEY,VALUE', 'sa', '', 'SONGS2024') READONLY;
+CREATE FORCE LINKED TABLE IF NOT EXISTS song_metrics('org.h2.Driver', 'jdbc:h2:file:./data/synthetic;NON_KEYWORDS=KEY,VALUE', 'sa', '', 'SONG_METRICS') READONLY;
@@ -0,0 +1,72 @@
+package songservice.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import songservice.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkheadTransactionTemplateTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DatabaseBulkhead bulkhead = new DatabaseBulkhead(registry, 1, Duration.ofMillis(50));
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final BulkheadTransactionTemplate template = new BulkheadTransactionTemplate(transactionManager,
+            new StaticListableBeanFactory(Map.of("bulkhead", bulkhead)).getBeanProvider(DatabaseBulkhead.class));
+
+    @Test
+    void permitIsHeldBeforeTheTransactionBegins() {
+        AtomicReference<Double> availableAtBegin = new AtomicReference<>();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            availableAtBegin.set(available());
+            return new SimpleTransactionStatus();
+        });
+
+        String result = template.execute(status -> "done");
+
+        assertThat(result).isEqualTo("done");
+        assertThat(availableAtBegin.get()).isZero();
+        assertThat(available()).isEqualTo(1);
+    }
+
+    @Test
+    void noTransactionBeginsWithoutAPermit() throws InterruptedException {
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = Thread.ofPlatform().start(() -> bulkhead.call("holder", false, () -> {
+            held.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        held.await();
+        try {
+            assertThatThrownBy(() -> template.execute(status -> "done")).isInstanceOf(ServiceUnavailableException.class);
+            verify(transactionManager, never()).getTransaction(any());
+        } finally {
+            done.countDown();
+            holder.join();
+        }
+    }
+
+    private double available() {
+        return registry.get("spotifo.db.bulkhead.available").gauge().value();
+    }
+}
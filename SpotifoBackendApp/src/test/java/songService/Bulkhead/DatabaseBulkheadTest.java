@@ -0,0 +1,86 @@
+package songservice.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import songservice.catalog.SongsUpdatedEvent;
+import songservice.datasource.ReadYourWrites;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseBulkheadTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+    private final DatabaseBulkhead bulkhead = new DatabaseBulkhead(registry, 2, 6, readYourWrites, Duration.ofMillis(50));
+
+    @Test
+    void readOnlyTransactionsTakeReplicaPermits() {
+        Catalog catalog = proxy(new Catalog());
+
+        assertThat(catalog.read()).containsExactly(2.0, 5.0);
+        assertThat(catalog.write()).containsExactly(1.0, 6.0);
+        assertThat(catalog.untransactional()).containsExactly(2.0, 6.0);
+        assertThat(available("primary")).isEqualTo(2);
+        assertThat(available("replicas")).isEqualTo(6);
+    }
+
+    @Test
+    void readsStayOnThePrimaryPermitsAfterAWrite() {
+        readYourWrites.onSongsUpdated(new SongsUpdatedEvent(List.of("US001")));
+
+        assertThat(proxy(new Catalog()).read()).containsExactly(1.0, 6.0);
+    }
+
+    @Test
+    void readsShareThePrimaryPermitsWithoutReplicas() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DatabaseBulkhead shared = new DatabaseBulkhead(registry, 2, Duration.ofMillis(50));
+
+        double during = shared.call("read", true, () -> registry.get("spotifo.db.bulkhead.available").gauge().value());
+
+        assertThat(during).isEqualTo(1);
+        assertThat(registry.find("spotifo.db.bulkhead.available").tag("pool", "replicas").gauge()).isNull();
+    }
+
+    private Catalog proxy(Catalog target) {
+        target.test = this;
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(bulkhead);
+        return factory.getProxy();
+    }
+
+    private double available(String pool) {
+        return registry.get("spotifo.db.bulkhead.available").tag("pool", pool).gauge().value();
+    }
+
+    @Transactional
+    static class Catalog {
+
+        private DatabaseBulkheadTest test;
+
+        @Transactional(readOnly = true)
+        public double[] read() {
+            return test.permits();
+        }
+
+        public double[] write() {
+            return test.permits();
+        }
+
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        public double[] untransactional() {
+            return test.permits();
+        }
+    }
+
+    private double[] permits() {
+        return new double[]{available("primary"), available("replicas")};
+    }
+}
@@ -0,0 +1,60 @@
+package songservice.catalog;
+
+import org.junit.jupiter.api.Test;
+import songservice.entity.Song;
+import songservice.entity.SongV2;
+import songservice.synthetic.SyntheticCatalog;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SongETagsTest {
+
+    private final SyntheticCatalog synthetic = new SyntheticCatalog(3);
+
+    @Test
+    void songTagsAgreeAcrossInstances() {
+        Song song = synthetic.song(0);
+        SongETags first = eTags(song);
+        SongETags second = eTags(song);
+
+        assertThat(first.song(song.getIsrc())).isNotNull().isEqualTo(second.song(song.getIsrc()));
+        assertThat(first.pages()).isNotEqualTo(second.pages());
+    }
+
+    @Test
+    void attachingSongs2024MatchesAFreshLoad() {
+        Song song = synthetic.song(1);
+        song.setPopularity(90);
+        SongV2 songV2 = synthetic.songV2(song, 1);
+        SongETags running = eTags(song);
+        String before = running.song(song.getIsrc());
+
+        running.onSongsUpdated(new SongsUpdatedEvent(List.of(song.getIsrc()), List.of(songV2)));
+        song.setSongV2(songV2);
+
+        assertThat(running.song(song.getIsrc())).isNotEqualTo(before).isEqualTo(eTags(song).song(song.getIsrc()));
+    }
+
+    @Test
+    void updatesWithoutContentLeaveTheSongUntagged() {
+        Song song = synthetic.song(2);
+        SongETags eTags = eTags(song);
+
+        eTags.onSongsUpdated(new SongsUpdatedEvent(List.of(song.getIsrc())));
+
+        assertThat(eTags.song(song.getIsrc())).isNull();
+    }
+
+    private static SongETags eTags(Song song) {
+        SongCatalog catalog = mock(SongCatalog.class);
+        when(catalog.isLoaded()).thenReturn(true);
+        when(catalog.ordinalOf(song.getIsrc())).thenReturn(0);
+        SongETags eTags = new SongETags(catalog, new CatalogVersion());
+        eTags.add(0, song);
+        return eTags;
+    }
+}
@@ -0,0 +1,113 @@
+package songservice.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvReaderTest {
+
+    private static final List<List<String>> RECORDS = List.of(
+            List.of("ISRC", "Track Name", "Artist Name(s)", "Popularity"),
+            List.of("US001", "Plain", "Someone", "42"),
+            List.of("US002", "Comma, inside", "A, B and C", ""),
+            List.of("US003", "She said \"hi\"", "\"", "7"),
+            List.of("US004", "Line\nbreak", "Carriage\r\nreturn", "\"quoted\", twice\n"),
+            List.of("US005", "", "Björk — Ísland 東京", "0"));
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void readsQuotedFieldsWithEmbeddedCommasQuotesAndLineBreaks() throws IOException {
+        Path file = write(csv(RECORDS));
+
+        assertThat(readAll(file, 64L * 1024 * 1024)).isEqualTo(RECORDS);
+    }
+
+    @Test
+    void readsRecordsStraddlingEveryWindowBoundary() throws IOException {
+        String csv = csv(RECORDS);
+        Path file = write(csv);
+
+        // every window size up to the file's leaves some record, field, quote or CRLF split across two windows
+        for (int window = 1; window <= csv.getBytes(StandardCharsets.UTF_8).length; window++) {
+            assertThat(readAll(file, window)).as("window of %d bytes", window).isEqualTo(RECORDS);
+        }
+    }
+
+    @Test
+    void readsBareLineEndingsByteOrderMarkAndAFinalRecordWithoutLineEnd() throws IOException {
+        Path file = write("\uFEFFISRC,Track Name\nUS001,\"a\"\"b\"\r\n\r\nUS002,\nUS003,last");
+
+        for (int window : new int[]{1, 2, 3, 5, 1024}) {
+            assertThat(readAll(file, window)).as("window of %d bytes", window).containsExactly(
+                    List.of("ISRC", "Track Name"),
+                    List.of("US001", "a\"b"),
+                    List.of("US002", ""),
+                    List.of("US003", "last"));
+        }
+    }
+
+    @Test
+    void endsWithAnEmptyFieldAfterATrailingComma() throws IOException {
+        Path file = write("US001,a,");
+
+        assertThat(readAll(file, 4)).containsExactly(List.of("US001", "a", ""));
+    }
+
+    @Test
+    void resumesFromThePositionAfterARecord() throws IOException {
+        Path file = write(csv(RECORDS));
+        long[] positions = new long[RECORDS.size()];
+        try (CsvReader reader = new CsvReader(file, 7)) {
+            for (int i = 0; i < RECORDS.size(); i++) {
+                reader.readRecord();
+                positions[i] = reader.position();
+            }
+        }
+
+        for (int i = 0; i < RECORDS.size(); i++) {
+            try (CsvReader reader = new CsvReader(file, 7)) {
+                reader.seek(positions[i]);
+                assertThat(read(reader)).as("after record %d", i).isEqualTo(RECORDS.subList(i + 1, RECORDS.size()));
+            }
+        }
+    }
+
+    private Path write(String csv) throws IOException {
+        return Files.writeString(directory.resolve("songs.csv"), csv, StandardCharsets.UTF_8);
+    }
+
+    private static String csv(List<List<String>> records) throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        for (List<String> record : records) {
+            writer.writeRecord(record);
+        }
+        return out.toString();
+    }
+
+    private static List<List<String>> readAll(Path file, long window) throws IOException {
+        try (CsvReader reader = new CsvReader(file, window)) {
+            return read(reader);
+        }
+    }
+
+    private static List<List<String>> read(CsvReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        for (String[] record = reader.readRecord(); record != null; record = reader.readRecord()) {
+            records.add(Arrays.asList(record));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,30 @@
+package songservice.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import songservice.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExportLimitTest {
+
+    @Test
+    void rejectsExportsOverTheLimitUntilOneFinishes() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ExportLimit limit = new ExportLimit(registry, 2, Duration.ofSeconds(30));
+        limit.acquire();
+        limit.acquire();
+
+        assertThatThrownBy(limit::acquire)
+                .isInstanceOfSatisfying(ServiceUnavailableException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(30)));
+        assertThat(registry.counter("spotifo.export.rejected").count()).isEqualTo(1);
+
+        limit.release();
+        limit.acquire();
+        assertThat(registry.get("spotifo.export.available").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,111 @@
+package songservice.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTest {
+
+    private static final long MILLI = 1_000_000;
+
+    @Test
+    void admitsUpToTheLimit() {
+        GradientLimit limit = new GradientLimit(3, 1, 10);
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        limit.release(MILLI, false);
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.inflight()).isEqualTo(3);
+    }
+
+    @Test
+    void growsWhileBusyAtSteadyLatency() {
+        GradientLimit limit = new GradientLimit(10, 1, 100);
+        for (int i = 0; i < 50; i++) {
+            fill(limit);
+            limit.release(MILLI, false);
+            drain(limit);
+        }
+        assertThat(limit.limit()).isGreaterThan(10);
+        assertThat(limit.congested()).isFalse();
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesUnderLoad() {
+        GradientLimit limit = new GradientLimit(50, 1, 100);
+        for (int i = 0; i < 200; i++) {
+            run(limit, 50, MILLI);
+        }
+        int steady = limit.limit();
+        for (int i = 0; i < 20; i++) {
+            run(limit, limit.limit(), 20 * MILLI);
+        }
+        assertThat(limit.limit()).isLessThan(steady);
+        limit.tryAcquire();
+        assertThat(limit.congested()).isTrue();
+    }
+
+    @Test
+    void holdsTheLimitWhileAppLimited() {
+        GradientLimit limit = new GradientLimit(20, 1, 100);
+        for (int i = 0; i < 100; i++) {
+            run(limit, 2, MILLI);
+        }
+        assertThat(limit.limit()).isEqualTo(20);
+        for (int i = 0; i < 100; i++) {
+            run(limit, 2, 50 * MILLI);
+        }
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void dropsBackOffToTheMinimum() {
+        GradientLimit limit = new GradientLimit(10, 5, 100);
+        limit.tryAcquire();
+        limit.release(MILLI, true);
+        assertThat(limit.limit()).isEqualTo(9);
+        for (int i = 0; i < 20; i++) {
+            limit.backOff();
+        }
+        assertThat(limit.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void ignoredRequestsLeaveNoSample() {
+        GradientLimit limit = new GradientLimit(10, 1, 100);
+        for (int i = 0; i < 100; i++) {
+            fill(limit);
+            limit.ignore();
+            drain(limit);
+        }
+        assertThat(limit.limit()).isEqualTo(10);
+        assertThat(limit.inflight()).isZero();
+    }
+
+    /**
+     * Admits {@code concurrency} requests, then completes them all with the given latency.
+     */
+    private static void run(GradientLimit limit, int concurrency, long rttNanos) {
+        int admitted = 0;
+        while (admitted < concurrency && limit.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limit.release(rttNanos, false);
+        }
+    }
+
+    private static void fill(GradientLimit limit) {
+        while (limit.tryAcquire()) {
+            // admit up to the limit
+        }
+    }
+
+    private static void drain(GradientLimit limit) {
+        while (limit.inflight() > 0) {
+            limit.ignore();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package songservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import songservice.dto.SongDisplay;
+import songservice.entity.Song;
+import songservice.snapshot.CatalogSnapshot;
+import songservice.snapshot.CatalogSnapshotWriter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repository;DB_CLOSE_DELAY=-1;NON_KEYWORDS=KEY,VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SongRepositoryTest {
+
+    private static final int SONGS = 60;
+    private static final int PAGE = 7;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Test
+    void popularityPagesFollowTheSnapshotOrder(@TempDir Path directory) throws Exception {
+        // inserted in descending ISRC order, with few distinct popularities, so ties need the ISRC
+        for (int i = SONGS - 1; i >= 0; i--) {
+            Song song = new Song();
+            song.setIsrc("US%03d".formatted(i));
+            song.setTrackName("Track " + i);
+            song.setPopularity(i % 5 == 0 ? null : 40 + i % 3 * 10);
+            songRepository.save(song);
+        }
+        songRepository.flush();
+
+        Path path = directory.resolve("catalog.snapshot");
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path, songRepository.count());
+             Stream<Song> songs = songRepository.streamSongsByPopularity()) {
+            songs.forEach(writer::add);
+            writer.commit(System.currentTimeMillis());
+        }
+        CatalogSnapshot snapshot = CatalogSnapshot.open(path);
+        assertThat(snapshot.size()).isEqualTo(SONGS);
+
+        for (int page = 0; page * PAGE < SONGS; page++) {
+            List<String> expected = IntStream.range(page * PAGE, Math.min(SONGS, (page + 1) * PAGE))
+                    .mapToObj(row -> snapshot.display(row).getIsrc())
+                    .toList();
+            List<String> displays = new ArrayList<>();
+            songRepository.findAllSongDisplaysByPopularity(PageRequest.of(page, PAGE))
+                    .forEach(song -> displays.add(song.getIsrc()));
+            List<String> entities = songRepository.findAllSongsByPopularity(PageRequest.of(page, PAGE))
+                    .map(Song::getIsrc)
+                    .getContent();
+            assertThat(displays).as("display page %d", page).isEqualTo(expected);
+            assertThat(entities).as("entity page %d", page).isEqualTo(expected);
+        }
+    }
+}
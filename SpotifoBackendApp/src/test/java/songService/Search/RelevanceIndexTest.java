@@ -0,0 +1,60 @@
+package songservice.search;
+
+import org.junit.jupiter.api.Test;
+import songservice.entity.Song;
+import songservice.synthetic.SyntheticCatalog;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RelevanceIndexTest {
+
+    private static final int SIZE = 20_000;
+
+    @Test
+    void typoFindsTheIntendedWordsBeforeRareNearMisses() {
+        RelevanceIndex index = index();
+        index.add(SIZE, song("Night River Summer Gold", "Ka Lo", 40));
+        index.add(SIZE + 1, song("River", "Tolo Rivi", 90));
+        index.loaded();
+
+        List<RelevanceIndex.Hit> hits = index.search("nigt rivr sumer", 12, true);
+
+        assertThat(hits).extracting(RelevanceIndex.Hit::ordinal).contains(SIZE).doesNotContain(SIZE + 1);
+        assertThat(index.search("nigt rivr sumer", 12, false)).isEmpty();
+    }
+
+    @Test
+    void prunedTopKMatchesTheFullRanking() {
+        RelevanceIndex index = index();
+        index.loaded();
+        for (String query : List.of("nigt rivr sumer", "lovr hert", "dreem fire", "dance rain", "sumer nights")) {
+            List<RelevanceIndex.Hit> all = index.search(query, SIZE, true);
+            List<RelevanceIndex.Hit> top = index.search(query, 10, true);
+            assertThat(top).hasSize(Math.min(10, all.size()));
+            for (int i = 0; i < top.size(); i++) {
+                assertThat(top.get(i).score()).isCloseTo(all.get(i).score(), within(1e-4f));
+            }
+        }
+    }
+
+    private static RelevanceIndex index() {
+        SyntheticCatalog catalog = new SyntheticCatalog(1);
+        RelevanceIndex index = new RelevanceIndex(0.5f);
+        for (int i = 0; i < SIZE; i++) {
+            index.add(i, catalog.song(i));
+        }
+        return index;
+    }
+
+    private static Song song(String trackName, String artistNames, int popularity) {
+        Song song = new Song();
+        song.setTrackName(trackName);
+        song.setArtistNames(artistNames);
+        song.setAlbumName(trackName);
+        song.setPopularity(popularity);
+        return song;
+    }
+}
@@ -0,0 +1,151 @@
+package songservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import songservice.cache.SongDetailCache;
+import songservice.cache.SongPageCache;
+import songservice.catalog.CatalogVersion;
+import songservice.catalog.SongCatalog;
+import songservice.dto.SongMapper;
+import songservice.dto.SongSlice;
+import songservice.entity.Song;
+import songservice.exception.InvalidQueryException;
+import songservice.repository.SongRepository;
+import songservice.repository.SongRepositoryCustom.KeyedSongDisplay;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cursor;DB_CLOSE_DELAY=-1;NON_KEYWORDS=KEY,VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SongCursorTest {
+
+    private static final int SONGS = 60;
+    private static final int PAGE = 7;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @BeforeEach
+    void insertSongs() {
+        // inserted in descending ISRC order, with few distinct popularities and some missing, so ties
+        // and nulls both need the ISRC to break them
+        for (int i = SONGS - 1; i >= 0; i--) {
+            Song song = new Song();
+            song.setIsrc("US%03d".formatted(i));
+            song.setTrackName("Track " + i);
+            song.setPopularity(i % 5 == 0 ? null : 40 + i % 3 * 10);
+            songRepository.save(song);
+        }
+        songRepository.flush();
+    }
+
+    @Test
+    void roundTripsThroughItsToken() {
+        SongCursor cursor = new SongCursor("popularity", false, "50", "US007");
+        SongCursor withoutValue = new SongCursor("trackName", true, null, "US010");
+
+        assertThat(SongCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(SongCursor.decode(withoutValue.encode())).isEqualTo(withoutValue);
+    }
+
+    @Test
+    void keysetPagesMatchAnOffsetScan() {
+        for (boolean ascending : new boolean[]{true, false}) {
+            Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, "popularity", "isrc");
+            List<String> offset = new ArrayList<>();
+            for (int page = 0; page * PAGE < SONGS; page++) {
+                songRepository.findAll(PageRequest.of(page, PAGE, sort)).forEach(song -> offset.add(song.getIsrc()));
+            }
+            assertThat(offset).doesNotHaveDuplicates().hasSize(SONGS);
+
+            assertThat(scroll(ascending, false)).as("entities, ascending: %s", ascending).isEqualTo(offset);
+            assertThat(scroll(ascending, true)).as("displays, ascending: %s", ascending).isEqualTo(offset);
+        }
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        SongServiceImpl service = service();
+        String valid = new SongCursor("popularity", true, "50", "US007").encode();
+        byte[] otherVersion = Base64.getUrlDecoder().decode(valid);
+        otherVersion[0]++;
+
+        for (String cursor : List.of("not a cursor!", valid.substring(0, valid.length() - 4),
+                Base64.getUrlEncoder().encodeToString(otherVersion),
+                new SongCursor("popularity", true, "fifty", "US007").encode())) {
+            assertThatThrownBy(() -> scroll(service, cursor, "popularity", "ASC"))
+                    .as(cursor)
+                    .isInstanceOf(InvalidQueryException.class);
+        }
+    }
+
+    @Test
+    void rejectsACursorIssuedForAnotherSortOrder() {
+        SongServiceImpl service = service();
+        String cursor = scroll(service, "", "popularity", "ASC").getNextCursor();
+        assertThat(scroll(service, cursor, "popularity", "ASC").getContent()).hasSize(PAGE);
+
+        assertThatThrownBy(() -> scroll(service, cursor, "popularity", "DESC")).isInstanceOf(InvalidQueryException.class);
+        assertThatThrownBy(() -> scroll(service, cursor, "isrc", "ASC")).isInstanceOf(InvalidQueryException.class);
+    }
+
+    /**
+     * Pages through the whole catalog, unfiltered so songs without a popularity are included, passing
+     * each page's position on through a cursor token the way {@code GET /songs/scroll} does.
+     */
+    private List<String> scroll(boolean ascending, boolean displays) {
+        List<String> isrcs = new ArrayList<>();
+        String token = null;
+        while (true) {
+            SongCursor after = token == null ? null : SongCursor.decode(token);
+            String lastValue = after == null ? null : after.lastValue();
+            String lastIsrc = after == null ? null : after.lastIsrc();
+            List<KeyedSongDisplay> page = displays
+                    ? songRepository.findSongDisplaysAfter(null, "popularity", ascending, lastValue, lastIsrc, PAGE)
+                    : songRepository.findSongsAfter(null, "popularity", ascending, lastValue, lastIsrc, PAGE).stream()
+                    .map(song -> new KeyedSongDisplay(SongMapper.INSTANCE.toDisplay(song), song.getPopularity()))
+                    .toList();
+            page.forEach(song -> isrcs.add(song.song().getIsrc()));
+            if (page.size() < PAGE) {
+                return isrcs;
+            }
+            KeyedSongDisplay last = page.getLast();
+            token = new SongCursor("popularity", ascending, last.sortKey() == null ? null : last.sortKey().toString(),
+                    last.song().getIsrc()).encode();
+        }
+    }
+
+    private static SongSlice scroll(SongServiceImpl service, String cursor, String sortBy, String direction) {
+        return service.scrollSongs(cursor, PAGE, sortBy, direction, null, null, null, null, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SongServiceImpl service() {
+        return new SongServiceImpl(songRepository, mock(ApplicationEventPublisher.class), mock(ObjectProvider.class),
+                mock(SongDetailCache.class), mock(SongPageCache.class), new CatalogVersion(), mock(SongCatalog.class),
+                mock(ObjectProvider.class), mock(ObjectProvider.class), mock(ObjectProvider.class), new SimpleMeterRegistry(),
+                mock(PlatformTransactionManager.class), mock(ObjectProvider.class), 100, 500, 100, 1000, "projection");
+    }
+}
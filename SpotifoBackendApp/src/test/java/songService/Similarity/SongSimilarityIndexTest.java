@@ -0,0 +1,98 @@
+package songservice.similarity;
+
+import org.junit.jupiter.api.Test;
+import songservice.entity.Song;
+import songservice.synthetic.SyntheticCatalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SongSimilarityIndexTest {
+
+    private static final int SIZE = 20_000;
+
+    @Test
+    void nearestMatchesBruteForce() {
+        SyntheticCatalog catalog = new SyntheticCatalog(1);
+        SongSimilarityIndex index = new SongSimilarityIndex();
+        float[][] rows = new float[SIZE][];
+        for (int i = 0; i < SIZE; i++) {
+            Song song = catalog.song(i);
+            if (i % 97 == 0) {
+                clearFeatures(song);
+            }
+            rows[i] = SongSimilarityIndex.row(song);
+            index.add(i, song);
+        }
+        SplittableRandom random = new SplittableRandom(3);
+        for (int q = 0; q < 200; q++) {
+            int ordinal = random.nextInt(SIZE);
+            int k = 1 + random.nextInt(25);
+            List<SongSimilarityIndex.Neighbour> found = index.nearest(ordinal, k);
+            if (rows[ordinal] == null) {
+                assertThat(found).isEmpty();
+                continue;
+            }
+            List<Float> expected = bruteForce(rows, ordinal, k);
+            assertThat(found).hasSize(expected.size());
+            for (int i = 0; i < found.size(); i++) {
+                assertThat(found.get(i).ordinal()).isNotEqualTo(ordinal);
+                assertThat(rows[found.get(i).ordinal()]).isNotNull();
+                assertThat(found.get(i).distance()).isCloseTo(expected.get(i), within(1e-5f));
+            }
+        }
+    }
+
+    @Test
+    void readdingASongMovesIt() {
+        SyntheticCatalog catalog = new SyntheticCatalog(2);
+        SongSimilarityIndex index = new SongSimilarityIndex();
+        for (int i = 0; i < 100; i++) {
+            index.add(i, catalog.song(i));
+        }
+        Song twin = catalog.song(7);
+        index.add(50, twin);
+        assertThat(index.nearest(7, 1)).extracting(SongSimilarityIndex.Neighbour::ordinal).containsExactly(50);
+
+        clearFeatures(twin);
+        index.add(50, twin);
+        assertThat(index.nearest(50, 5)).isEmpty();
+        assertThat(index.nearest(7, 99)).extracting(SongSimilarityIndex.Neighbour::ordinal).doesNotContain(50, 7);
+    }
+
+    private static List<Float> bruteForce(float[][] rows, int ordinal, int k) {
+        List<Float> distances = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            if (i == ordinal || rows[i] == null) {
+                continue;
+            }
+            float distance = 0;
+            for (int feature = 0; feature < SongSimilarityIndex.FEATURES; feature++) {
+                float difference = rows[i][feature] - rows[ordinal][feature];
+                distance += difference * difference;
+            }
+            distances.add((float) Math.sqrt(distance));
+        }
+        distances.sort(null);
+        return distances.subList(0, Math.min(k, distances.size()));
+    }
+
+    private static void clearFeatures(Song song) {
+        song.setDanceability(null);
+        song.setEnergy(null);
+        song.setKey(null);
+        song.setLoudness(null);
+        song.setMode(null);
+        song.setSpeechiness(null);
+        song.setAcousticness(null);
+        song.setInstrumentalness(null);
+        song.setLiveness(null);
+        song.setValence(null);
+        song.setTempo(null);
+        song.setTimeSignature(null);
+    }
+}
@@ -0,0 +1,163 @@
+package songservice.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import songservice.catalog.SongETags;
+import songservice.dto.SongMapper;
+import songservice.entity.Song;
+import songservice.synthetic.SyntheticCatalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogSnapshotTest {
+
+    private static final int SIZE = 3_000;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void roundTripsSongsWithNullsAndSongs2024() throws IOException {
+        SyntheticCatalog catalog = new SyntheticCatalog(5);
+        List<Song> songs = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            Song song = catalog.song(i);
+            song.setSongV2(catalog.songV2(song, i));
+            if (i % 7 == 0) {
+                song.setTrackName(null);
+                song.setPopularity(null);
+                song.setDanceability(null);
+                song.setKey(null);
+            }
+            songs.add(song);
+        }
+        assertThat(songs).anyMatch(song -> song.getSongV2() != null).anyMatch(song -> song.getSongV2() == null);
+
+        CatalogSnapshot snapshot = write(songs);
+
+        assertThat(snapshot.size()).isEqualTo(SIZE);
+        for (int row = 0; row < SIZE; row++) {
+            Song song = songs.get(row);
+            assertThat(snapshot.rowOf(song.getIsrc())).isEqualTo(row);
+            assertThat(snapshot.song(row)).isEqualTo(SongMapper.INSTANCE.toDTO(song));
+            assertThat(snapshot.display(row)).isEqualTo(SongMapper.INSTANCE.toDisplay(song));
+            assertThat(snapshot.contentHash(row)).isEqualTo(SongETags.contentHash(song));
+        }
+        assertThat(snapshot.rowOf("ZZ0000000000")).isEqualTo(-1);
+    }
+
+    @Test
+    void findsIsrcsSharingAHash() throws IOException {
+        // "Aa" and "BB" hash alike, so these ISRCs all land on the same slot and must be probed past
+        List<Song> songs = new ArrayList<>();
+        for (int bits = 0; bits < 16; bits++) {
+            StringBuilder isrc = new StringBuilder("US");
+            for (int i = 0; i < 4; i++) {
+                isrc.append((bits >>> i & 1) == 0 ? "Aa" : "BB");
+            }
+            Song song = new Song();
+            song.setIsrc(isrc.toString());
+            song.setTrackName("Track " + bits);
+            songs.add(song);
+        }
+        Song missing = songs.removeLast();
+        assertThat(songs).allMatch(song -> song.getIsrc().hashCode() == missing.getIsrc().hashCode());
+
+        CatalogSnapshot snapshot = write(songs);
+
+        for (int row = 0; row < songs.size(); row++) {
+            assertThat(snapshot.rowOf(songs.get(row).getIsrc())).isEqualTo(row);
+            assertThat(snapshot.display(row).getTrackName()).isEqualTo("Track " + row);
+        }
+        assertThat(snapshot.rowOf(missing.getIsrc())).isEqualTo(-1);
+    }
+
+    @Test
+    void rejectsASnapshotWrittenForOtherMappings() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        write(path, List.of(new SyntheticCatalog(1).song(0)));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, CatalogSnapshot.LAYOUT + 1), 8);
+        }
+
+        assertThatThrownBy(() -> CatalogSnapshot.open(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("different entity mappings");
+    }
+
+    @Test
+    void rejectsATruncatedSnapshot() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        write(path, List.of(new SyntheticCatalog(1).song(0)));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        assertThatThrownBy(() -> CatalogSnapshot.open(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("truncated");
+    }
+
+    @Test
+    void storesStringsLargerThanTheHeapBuffer() throws IOException {
+        List<Song> songs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Song song = new SyntheticCatalog(6).song(i);
+            song.setTrackName(String.valueOf((char) ('a' + i)).repeat(700_000 + i));
+            songs.add(song);
+        }
+
+        CatalogSnapshot snapshot = write(songs);
+
+        for (int row = 0; row < songs.size(); row++) {
+            assertThat(snapshot.display(row)).isEqualTo(SongMapper.INSTANCE.toDisplay(songs.get(row)));
+        }
+    }
+
+    @Test
+    void rejectsATooLargeCatalogBeforeWritingAnything() {
+        Path path = directory.resolve("catalog.snapshot");
+
+        assertThatThrownBy(() -> new CatalogSnapshotWriter(path, 500_000_000L))
+                .isInstanceOf(SnapshotTooLargeException.class);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void failsWhenTheCatalogDoesNotMatchItsCount() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        SyntheticCatalog catalog = new SyntheticCatalog(1);
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path, 2)) {
+            writer.add(catalog.song(0));
+            assertThatThrownBy(() -> writer.commit(System.currentTimeMillis())).isInstanceOf(IllegalStateException.class);
+        }
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path, 1)) {
+            writer.add(catalog.song(0));
+            assertThatThrownBy(() -> writer.add(catalog.song(1))).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    private CatalogSnapshot write(List<Song> songs) throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        write(path, songs);
+        return CatalogSnapshot.open(path);
+    }
+
+    private static void write(Path path, List<Song> songs) throws IOException {
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path, songs.size())) {
+            songs.forEach(writer::add);
+            writer.commit(System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package songservice.snapshot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import songservice.bulkhead.DatabaseBulkhead;
+import songservice.catalog.CatalogVersion;
+import songservice.catalog.SongETags;
+import songservice.entity.Song;
+import songservice.repository.SongRepository;
+import songservice.synthetic.SyntheticCatalog;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SongSnapshotStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private final SongETags eTags = mock(SongETags.class);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Test
+    void servesRowsOnlyWhileTheyAreWhatTheTagStandsFor() throws IOException {
+        Song song = new SyntheticCatalog(4).song(0);
+        SongSnapshotStore store = store(song);
+        String isrc = song.getIsrc();
+
+        when(eTags.contentHash(isrc)).thenReturn(null);
+        assertThat(store.song(isrc)).isNotNull();
+
+        when(eTags.contentHash(isrc)).thenReturn(SongETags.contentHash(song));
+        assertThat(store.song(isrc)).isNotNull();
+
+        when(eTags.contentHash(isrc)).thenReturn(SongETags.contentHash(song) + 1);
+        assertThat(store.song(isrc)).isNull();
+        assertThat(store.lookupSongDisplays(List.of(isrc))).isNull();
+    }
+
+    @Test
+    void installingASnapshotAdvancesTheCatalogVersion() throws IOException {
+        long before = catalogVersion.current();
+        SongSnapshotStore store = store(new SyntheticCatalog(4).song(1));
+
+        assertThat(catalogVersion.current()).isGreaterThan(before);
+        assertThat(store.songsByPopularity(1, 10).getContent()).hasSize(1);
+    }
+
+    private SongSnapshotStore store(Song song) throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(path, 1)) {
+            writer.add(song);
+            writer.commit(System.currentTimeMillis());
+        }
+        @SuppressWarnings("unchecked")
+        ObjectProvider<DatabaseBulkhead> bulkhead = mock(ObjectProvider.class);
+        return new SongSnapshotStore(mock(SongRepository.class), mock(EntityManager.class), eTags, catalogVersion,
+                mock(PlatformTransactionManager.class), bulkhead, new SimpleMeterRegistry(), path,
+                Duration.ofHours(1), Duration.ofMinutes(1), 500);
+    }
+}
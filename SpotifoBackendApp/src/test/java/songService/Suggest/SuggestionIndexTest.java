@@ -0,0 +1,37 @@
+package songservice.suggest;
+
+import org.junit.jupiter.api.Test;
+import songservice.dto.Suggestion;
+import songservice.entity.Song;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    @Test
+    void nameWhosePopularityRoseIsSuggestedBeforeTheNextRebuild() {
+        SuggestionIndex index = new SuggestionIndex(4096);
+        index.add(0, song("A1", "Night Drive", 50));
+        index.add(1, song("A2", "Night Moves", 40));
+        index.add(2, song("A3", "Night Fever", 30));
+        index.add(3, song("A4", "Night Train", 10));
+        index.loaded();
+        assertThat(index.suggest("nig", Suggestion.Type.TRACK, 2)).extracting(Suggestion::getText)
+                .containsExactly("Night Drive", "Night Moves");
+
+        index.add(4, song("A5", "Night Train", 90));
+
+        assertThat(index.suggest("nig", Suggestion.Type.TRACK, 2)).extracting(Suggestion::getText)
+                .containsExactly("Night Train", "Night Drive");
+        assertThat(index.suggest("train", Suggestion.Type.TRACK, 1)).extracting(Suggestion::getIsrc)
+                .containsExactly("A5");
+    }
+
+    private static Song song(String isrc, String trackName, int popularity) {
+        Song song = new Song();
+        song.setIsrc(isrc);
+        song.setTrackName(trackName);
+        song.setPopularity(popularity);
+        return song;
+    }
+}